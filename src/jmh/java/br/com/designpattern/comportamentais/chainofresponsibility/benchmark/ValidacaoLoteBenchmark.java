@@ -0,0 +1,76 @@
+package br.com.designpattern.comportamentais.chainofresponsibility.benchmark;
+
+import br.com.designpattern.comportamentais.chainofresponsibility.handler.PedidoHandler;
+import br.com.designpattern.comportamentais.chainofresponsibility.model.Pedido;
+import br.com.designpattern.comportamentais.chainofresponsibility.pipeline.PedidoPipeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+// Compara a validação pedido a pedido com a validação em lote, usando handlers que simulam uma consulta remota
+public class ValidacaoLoteBenchmark {
+
+    private static final int PEDIDOS = 2_000;
+    private static final int TAMANHO_LOTE = 500;
+    private static final long IDA_E_VOLTA_NANOS = 200_000; // custo fixo de cada consulta ao backend
+    private static final long POR_ITEM_NANOS = 1_000;
+
+    public static void main(String[] args) {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        PedidoPipeline pipeline = new PedidoPipeline(List.of(new ConsultaRemotaHandler(2), new ConsultaRemotaHandler(5)), executor);
+
+        List<Pedido> pedidos = new ArrayList<>(PEDIDOS);
+        for (long i = 0; i < PEDIDOS; i++) {
+            pedidos.add(new Pedido(i, "cliente-" + (i % 100)));
+        }
+
+        for (int rodada = 0; rodada < 2; rodada++) {
+            long inicio = System.nanoTime();
+            for (Pedido pedido : pedidos) {
+                pipeline.processar(pedido);
+            }
+            long porItem = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < PEDIDOS; i += TAMANHO_LOTE) {
+                pipeline.processar(pedidos.subList(i, Math.min(PEDIDOS, i + TAMANHO_LOTE)));
+            }
+            long emLote = System.nanoTime() - inicio;
+
+            System.out.printf("rodada %d: por item=%,8.0f pedidos/s em lote=%,10.0f pedidos/s%n",
+                    rodada, PEDIDOS / (porItem / 1e9), PEDIDOS / (emLote / 1e9));
+        }
+        executor.shutdownNow();
+    }
+
+    private static final class ConsultaRemotaHandler implements PedidoHandler {
+        private final int custo;
+
+        private ConsultaRemotaHandler(int custo) {
+            this.custo = custo;
+        }
+
+        @Override
+        public boolean processar(Pedido pedido) {
+            LockSupport.parkNanos(IDA_E_VOLTA_NANOS + POR_ITEM_NANOS);
+            return true;
+        }
+
+        @Override
+        public boolean[] processar(List<Pedido> pedidos) {
+            LockSupport.parkNanos(IDA_E_VOLTA_NANOS + POR_ITEM_NANOS * pedidos.size());
+            boolean[] resultados = new boolean[pedidos.size()];
+            Arrays.fill(resultados, true);
+            return resultados;
+        }
+
+        @Override
+        public int custo() {
+            return custo;
+        }
+    }
+}
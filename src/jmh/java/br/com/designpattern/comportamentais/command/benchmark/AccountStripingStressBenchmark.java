@@ -0,0 +1,63 @@
+package br.com.designpattern.comportamentais.command.benchmark;
+
+import br.com.designpattern.comportamentais.command.executor.TransferExecutor;
+import br.com.designpattern.comportamentais.command.journal.TransferJournal;
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+// Escalabilidade com contas disjuntas conforme o número de shards cresce.
+// A conservação dos saldos sob contenção é verificada pelo TransferExecutorTest.
+public class AccountStripingStressBenchmark {
+
+    private static final int TRANSFERS = 20_000;
+    private static final long WORK_NANOS = 50_000; // custo simulado de uma transferência
+
+    public static void main(String[] args) throws IOException {
+        for (int shards : new int[]{1, 2, 4, 8, 16}) {
+            disjointAccounts(shards);
+        }
+    }
+
+    private static void disjointAccounts(int shards) throws IOException {
+        TransferJournal journal = temporaryJournal();
+        TransferExecutor executor = new TransferExecutor(journal, 4096, shards, 64);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(TRANSFERS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFERS; i++) {
+            int pair = i % 256;
+            TransferRequest request = new TransferRequest("BALANCE", "from-" + pair, "to-" + pair, 1.0);
+            futures.add(submit(executor, new SimulatedTransferCommand(request, () -> LockSupport.parkNanos(WORK_NANOS))));
+        }
+        futures.forEach(CompletableFuture::join);
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        journal.close();
+
+        System.out.printf("contas disjuntas shards=%2d throughput=%,10.0f ops/s%n", shards, TRANSFERS / (elapsed / 1e9));
+    }
+
+    private static CompletableFuture<Void> submit(TransferExecutor executor, SimulatedTransferCommand command) {
+        while (true) {
+            try {
+                return executor.submitCommand(command);
+            } catch (RejectedExecutionException e) {
+                LockSupport.parkNanos(WORK_NANOS);
+            }
+        }
+    }
+
+    private static TransferJournal temporaryJournal() throws IOException {
+        Path file = Files.createTempFile("transfer-journal", ".bin");
+        file.toFile().deleteOnExit();
+        return new TransferJournal(file);
+    }
+}
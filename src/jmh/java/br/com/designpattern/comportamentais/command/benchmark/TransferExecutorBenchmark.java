@@ -0,0 +1,87 @@
+package br.com.designpattern.comportamentais.command.benchmark;
+
+import br.com.designpattern.comportamentais.command.command.TransferCommand;
+import br.com.designpattern.comportamentais.command.executor.TransferExecutor;
+import br.com.designpattern.comportamentais.command.journal.TransferJournal;
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Compara os modos síncrono e assíncrono do TransferExecutor com 1, 8 e 64 clientes concorrentes
+public class TransferExecutorBenchmark {
+
+    private static final int COMMANDS_PER_CLIENT = 2_000;
+    private static final long WORK_NANOS = 50_000; // custo simulado de uma transferência
+
+    public static void main(String[] args) throws Exception {
+        for (int clients : new int[]{1, 8, 64}) {
+            run("sync ", clients, false);
+            run("async", clients, true);
+        }
+    }
+
+    private static void run(String mode, int clients, boolean async) throws Exception {
+        TransferJournal journal = temporaryJournal();
+        TransferExecutor executor = new TransferExecutor(journal);
+        LongAdder callerNanos = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        CountDownLatch done = new CountDownLatch(clients);
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            // Contas distintas por cliente, para medir o executor e não a contenção entre contas
+            TransferRequest request = new TransferRequest("BALANCE", "from-" + c, "to-" + c, 10.0);
+            TransferCommand command = new SimulatedTransferCommand(request, () -> LockSupport.parkNanos(WORK_NANOS));
+            new Thread(() -> {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (int i = 0; i < COMMANDS_PER_CLIENT; i++) {
+                    long t0 = System.nanoTime();
+                    if (async) {
+                        futures.add(submitWithRetry(executor, command, rejected));
+                    } else {
+                        executor.executeCommand(command);
+                    }
+                    callerNanos.add(System.nanoTime() - t0);
+                }
+                futures.forEach(CompletableFuture::join);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        journal.close();
+
+        long total = (long) clients * COMMANDS_PER_CLIENT;
+        System.out.printf("%s clients=%2d throughput=%,10.0f ops/s latência média do chamador=%,8.1f µs rejeições=%d%n",
+                mode, clients, total / (elapsed / 1e9), callerNanos.sum() / (double) total / 1_000, rejected.sum());
+    }
+
+    private static CompletableFuture<Void> submitWithRetry(TransferExecutor executor, TransferCommand command,
+                                                           LongAdder rejected) {
+        while (true) {
+            try {
+                return executor.submitCommand(command);
+            } catch (RejectedExecutionException e) {
+                // Simula o cliente recebendo 429 e tentando novamente
+                rejected.increment();
+                LockSupport.parkNanos(WORK_NANOS);
+            }
+        }
+    }
+
+    private static TransferJournal temporaryJournal() throws IOException {
+        Path file = Files.createTempFile("transfer-journal", ".bin");
+        file.toFile().deleteOnExit();
+        return new TransferJournal(file);
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.designpattern.comportamentais.command.benchmark;
+
+import br.com.designpattern.comportamentais.command.executor.TransferExecutor;
+import br.com.designpattern.comportamentais.command.factory.TransferCommandFactory;
+import br.com.designpattern.comportamentais.command.journal.TransferJournal;
+import br.com.designpattern.comportamentais.command.journal.TransferJournalRecovery;
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+import br.com.designpattern.comportamentais.command.service.TransferService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Mede a gravação de milhões de comandos no journal e a recuperação na reabertura, de ponta a ponta:
+// leitura do journal, reexecução pelo TransferExecutor e gravação dos DONE com fsync por lote
+public class TransferJournalBenchmark {
+
+    private static final int ENTRIES = 2_000_000;
+    private static final int PENDING_EVERY = 2; // metade dos comandos fica sem marcador DONE e é reexecutada
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("transfer-journal", ".bin");
+        file.toFile().deleteOnExit();
+
+        TransferJournal journal = new TransferJournal(file);
+        long start = System.nanoTime();
+        for (int i = 0; i < ENTRIES; i++) {
+            TransferRequest request = new TransferRequest(i % 2 == 0 ? "BALANCE" : "CREDIT",
+                    "from-" + (i % 10_000), "to-" + (i % 7_000), 10.0 + i % 100);
+            long sequence = journal.append(request);
+            if (i % PENDING_EVERY != 0) {
+                journal.markDone(sequence);
+            }
+        }
+        journal.sync();
+        long appendNanos = System.nanoTime() - start;
+        journal.close();
+
+        long journalBytes = Files.size(file);
+        start = System.nanoTime();
+        TransferJournal reopened = new TransferJournal(file);
+        TransferExecutor executor = new TransferExecutor(reopened);
+        new TransferJournalRecovery(reopened, new TransferCommandFactory(new TransferService()), executor).recover();
+        long replayNanos = System.nanoTime() - start;
+
+        // Depois da recuperação não pode sobrar nada pendente
+        long[] left = {0};
+        reopened.replayPending((sequence, request) -> left[0]++);
+        executor.shutdown();
+        reopened.close();
+
+        long pending = (ENTRIES + PENDING_EVERY - 1) / PENDING_EVERY;
+        System.out.printf("gravação: %,d comandos em %,d ms (%,.0f ops/s)%n",
+                ENTRIES, appendNanos / 1_000_000, ENTRIES / (appendNanos / 1e9));
+        System.out.printf("recuperação: %,d bytes, %,d pendentes reexecutados em %,d ms (%,.0f ops/s), %,d restantes%n",
+                journalBytes, pending, replayNanos / 1_000_000, pending / (replayNanos / 1e9), left[0]);
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.designpattern.comportamentais.iterator.benchmark;
+
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.collection.impl.ColumnarProductCollection;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+// Compara o consumo de memória e a velocidade de varredura de ArrayList<Product> com o catálogo em colunas.
+// Rode com um heap grande o suficiente (ex.: -Xmx2g) para evitar que o GC distorça a medição de memória.
+public class ColumnarCatalogBenchmark {
+
+    private static final int PRODUCTS = 2_000_000;
+
+    public static void main(String[] args) {
+        long before = usedMemory();
+        List<Product> list = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            list.add(new Product("SKU-" + i, "Produto " + i, 10.0 + i % 1_000));
+        }
+        long listBytes = usedMemory() - before;
+
+        before = usedMemory();
+        ColumnarProductCollection.Builder builder = new ColumnarProductCollection.Builder();
+        for (int i = 0; i < PRODUCTS; i++) {
+            builder.add("SKU-" + i, "Produto " + i, 10.0 + i % 1_000);
+        }
+        ColumnarProductCollection columnar = builder.build();
+        builder = null;
+        long columnarBytes = usedMemory() - before;
+
+        System.out.printf("memória ArrayList<Product>: %,6d MB (%d bytes/produto)%n", listBytes >> 20, listBytes / PRODUCTS);
+        System.out.printf("memória em colunas:          %,6d MB (%d bytes/produto)%n", columnarBytes >> 20, columnarBytes / PRODUCTS);
+
+        for (int round = 0; round < 3; round++) {
+            run("ArrayList<Product>       ", () -> {
+                double total = 0;
+                for (Product product : list) {
+                    total += product.getPrice();
+                }
+                return total;
+            });
+            run("colunas via iterador     ", () -> {
+                double total = 0;
+                ProductIterator iterator = columnar.createIterator();
+                while (iterator.hasNext()) {
+                    total += iterator.next().getPrice();
+                }
+                return total;
+            });
+            run("colunas, coluna de preço ", () -> columnar.prices().sum());
+        }
+        System.out.println(list.size() + columnar.size()); // mantém as duas estruturas vivas até o fim
+    }
+
+    private static void run(String label, DoubleSupplier scan) {
+        long start = System.nanoTime();
+        double total = scan.getAsDouble();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %,14.0f produtos/s (total=%.0f)%n", label, PRODUCTS / seconds, total);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
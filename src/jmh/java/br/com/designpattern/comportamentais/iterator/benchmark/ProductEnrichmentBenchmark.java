@@ -0,0 +1,63 @@
+package br.com.designpattern.comportamentais.iterator.benchmark;
+
+import br.com.designpattern.comportamentais.iterator.iterator.collection.ProductCollection;
+import br.com.designpattern.comportamentais.iterator.iterator.collection.impl.DatabaseProductCollection;
+import br.com.designpattern.comportamentais.iterator.iterator.collection.impl.ExternalApiProductCollection;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.source.InMemoryProductPageSource;
+import br.com.designpattern.comportamentais.iterator.source.ProductPageSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleSupplier;
+
+// Compara o enriquecimento de preços sequencial e paralelo sobre um catálogo grande.
+// A fonte "sem tamanho" só pode ser dividida em lotes pelo iterador; as demais dividem por faixas de páginas.
+public class ProductEnrichmentBenchmark {
+
+    private static final int PRODUCTS = 2_000_000;
+    private static final int PAGE_SIZE = 1_000;
+
+    public static void main(String[] args) {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product(String.valueOf(i), "Produto " + i, 10.0 + i % 1_000));
+        }
+
+        ExecutorService prefetch = Executors.newCachedThreadPool();
+        ProductPageSource sized = new InMemoryProductPageSource(products);
+        ProductPageSource unsized = sized::fetchPage; // mesma origem, mas sem count()
+
+        ProductCollection database = new DatabaseProductCollection(sized, PAGE_SIZE, prefetch);
+        ProductCollection api = new ExternalApiProductCollection(sized, PAGE_SIZE, prefetch);
+        ProductCollection unknownSize = new ExternalApiProductCollection(unsized, PAGE_SIZE, prefetch);
+
+        System.out.println("paralelismo do ForkJoinPool: " + ForkJoinPool.commonPool().getParallelism());
+        for (int round = 0; round < 3; round++) {
+            run("database sequencial", () -> database.stream().mapToDouble(ProductEnrichmentBenchmark::enrich).sum());
+            run("database paralelo  ", () -> database.parallelStream().mapToDouble(ProductEnrichmentBenchmark::enrich).sum());
+            run("api paralelo       ", () -> api.parallelStream().mapToDouble(ProductEnrichmentBenchmark::enrich).sum());
+            run("sem tamanho paralelo", () -> unknownSize.parallelStream().mapToDouble(ProductEnrichmentBenchmark::enrich).sum());
+        }
+        prefetch.shutdownNow();
+    }
+
+    private static void run(String label, DoubleSupplier task) {
+        long start = System.nanoTime();
+        double total = task.getAsDouble();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %,12.0f produtos/s (total=%.2f)%n", label, PRODUCTS / seconds, total);
+    }
+
+    // Simula um cálculo de preço com impostos e desconto progressivo, limitado por CPU
+    private static double enrich(Product product) {
+        double price = product.getPrice();
+        for (int i = 0; i < 50; i++) {
+            price = price * 1.0001 + Math.sqrt(price) * 0.0001;
+        }
+        return price;
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.designpattern.comportamentais.mediator.benchmark;
+
+import br.com.designpattern.comportamentais.mediator.event.EventRouter;
+import br.com.designpattern.comportamentais.mediator.event.EventType;
+import br.com.designpattern.comportamentais.mediator.event.MediatorEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+// Custo de despacho conforme cresce o número de tipos de evento:
+// cadeia de if/else com equals (como o mediator antigo), HashMap por nome e a tabela do EventRouter.
+public class EventDispatchBenchmark {
+
+    private static final int EVENTS = 2_000_000;
+    private static final int[] TYPE_COUNTS = {4, 16, 64, 256, 512};
+
+    private static long handled;
+
+    public static void main(String[] args) {
+        for (int round = 0; round < 2; round++) {
+            for (int typeCount : TYPE_COUNTS) {
+                run(typeCount);
+            }
+        }
+        System.out.println(handled);
+    }
+
+    private static void run(int typeCount) {
+        String[] names = new String[typeCount];
+        Map<String, Runnable> byName = new HashMap<>();
+        EventRouter router = new EventRouter();
+        @SuppressWarnings("unchecked")
+        EventType<BenchmarkEvent>[] types = (EventType<BenchmarkEvent>[]) new EventType<?>[typeCount];
+        for (int i = 0; i < typeCount; i++) {
+            names[i] = "event-" + i;
+            byName.put(names[i], EventDispatchBenchmark::handle);
+            types[i] = EventType.define(names[i]);
+            router.register(types[i], (sender, event) -> handle());
+        }
+
+        Random random = new Random(42);
+        String[] nameStream = new String[EVENTS];
+        BenchmarkEvent[] eventStream = new BenchmarkEvent[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            int type = random.nextInt(typeCount);
+            // Cópia da string, como chegaria de outro componente: sem identidade compartilhada nem hash em cache
+            nameStream[i] = new String(names[type]);
+            eventStream[i] = new BenchmarkEvent(types[type]);
+        }
+
+        long start = System.nanoTime();
+        for (String event : nameStream) {
+            for (String name : names) {
+                if (event.equals(name)) {
+                    handle();
+                    break;
+                }
+            }
+        }
+        double chain = (System.nanoTime() - start) / (double) EVENTS;
+
+        for (int i = 0; i < EVENTS; i++) {
+            nameStream[i] = new String(nameStream[i]);
+        }
+        start = System.nanoTime();
+        for (String event : nameStream) {
+            byName.get(event).run();
+        }
+        double map = (System.nanoTime() - start) / (double) EVENTS;
+
+        start = System.nanoTime();
+        for (BenchmarkEvent event : eventStream) {
+            router.dispatch(null, event);
+        }
+        double table = (System.nanoTime() - start) / (double) EVENTS;
+
+        System.out.printf("%4d tipos: if/else=%8.1f ns  HashMap=%6.1f ns  EventRouter=%5.1f ns%n", typeCount, chain, map, table);
+    }
+
+    private static void handle() {
+        handled++;
+    }
+
+    private static final class BenchmarkEvent implements MediatorEvent {
+        private final EventType<BenchmarkEvent> type;
+
+        private BenchmarkEvent(EventType<BenchmarkEvent> type) {
+            this.type = type;
+        }
+
+        @Override
+        public EventType<?> type() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.designpattern.comportamentais.mediator.benchmark;
+
+import br.com.designpattern.comportamentais.mediator.service.SeatMap;
+
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Vazão de reserva + devolução com várias threads disputando o mesmo voo (venda relâmpago):
+// o SeatMap com compareAndSet por palavra contra um BitSet protegido por um lock global.
+public class SeatInventoryBenchmark {
+
+    private static final int SEATS = 300;
+    private static final long DURATION_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int[] THREAD_COUNTS = {1, 64};
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 0; round < 2; round++) {
+            for (int threads : THREAD_COUNTS) {
+                SeatMap seatMap = new SeatMap(SEATS);
+                double lockFree = run(threads, () -> {
+                    int seat = seatMap.reserve();
+                    if (seat >= 0) {
+                        seatMap.release(seat);
+                    }
+                });
+                LockedSeats locked = new LockedSeats(SEATS);
+                double global = run(threads, () -> {
+                    int seat = locked.reserve();
+                    if (seat >= 0) {
+                        locked.release(seat);
+                    }
+                });
+                System.out.printf("threads=%2d SeatMap=%,12.0f ops/s lock global=%,12.0f ops/s%n", threads, lockFree, global);
+            }
+        }
+    }
+
+    private static double run(int threads, Runnable operation) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = System.nanoTime() + DURATION_NANOS;
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int j = 0; j < 100; j++) {
+                        operation.run();
+                    }
+                    count += 100;
+                }
+                operations.add(count);
+            });
+            workers[i].start();
+        }
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    private static final class LockedSeats {
+        private final BitSet taken = new BitSet();
+        private final int capacity;
+
+        private LockedSeats(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private synchronized int reserve() {
+            int seat = taken.nextClearBit(0);
+            if (seat >= capacity) {
+                return -1;
+            }
+            taken.set(seat);
+            return seat;
+        }
+
+        private synchronized void release(int seat) {
+            taken.clear(seat);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.designpattern.comportamentais.memento.benchmark;
+
+import br.com.designpattern.comportamentais.memento.model.Transaction;
+import br.com.designpattern.comportamentais.memento.model.TransactionMemento;
+import br.com.designpattern.comportamentais.memento.service.TransactionHistory;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.Stack;
+
+// Memória retida por 1M atualizações: Stack de mementos completos (versão antiga),
+// histórico em colunas com mementos delta, o mesmo após compact() e o histórico limitado a 100 estados.
+// Como nas requisições, cada atualização traz strings novas; em geral só o valor muda.
+// Rodar com -Xmx2g para que todos os cenários caibam no heap.
+public class HistoryMemoryBenchmark {
+
+    private static final int UPDATES = 1_000_000;
+    private static final int USERS = 1_000;
+
+    public static void main(String[] args) {
+        long before = usedMemory();
+        Object retained = legacy();
+        report("Stack + memento completo", before, retained);
+
+        retained = null;
+        before = usedMemory();
+        TransactionHistory delta = deltas(UPDATES);
+        report("buffer circular + delta", before, delta);
+        delta.compact();
+        report("  após compact()", before, delta);
+
+        delta = null;
+        before = usedMemory();
+        report("profundidade 100", before, deltas(100));
+    }
+
+    private static Stack<TransactionMemento> legacy() {
+        Stack<TransactionMemento> history = new Stack<>();
+        Transaction transaction = new Transaction("user-0", "user-1", 100.0);
+        Updates updates = new Updates();
+        for (int i = 0; i < UPDATES; i++) {
+            updates.next();
+            history.push(transaction.save());
+            transaction.setDetails(updates.sender, updates.receiver, updates.amount);
+        }
+        return history;
+    }
+
+    private static TransactionHistory deltas(int depth) {
+        TransactionHistory history = new TransactionHistory(depth);
+        Transaction transaction = new Transaction("user-0", "user-1", 100.0);
+        Updates updates = new Updates();
+        for (int i = 0; i < UPDATES; i++) {
+            updates.next();
+            history.save(transaction.saveChanges(updates.sender, updates.receiver, updates.amount));
+            transaction.setDetails(updates.sender, updates.receiver, updates.amount);
+        }
+        return history;
+    }
+
+    private static void report(String name, long before, Object retained) {
+        long used = usedMemory() - before;
+        // Mantém o histórico alcançável até depois da medição
+        Objects.requireNonNull(retained);
+        System.out.printf("%-26s %,8d KB  %6.1f bytes/atualização%n", name, used / 1024, (double) used / UPDATES);
+    }
+
+    // Mesma sequência de atualizações para todos os cenários
+    private static final class Updates {
+        private final Random random = new Random(42);
+        private String sender = "user-0";
+        private String receiver = "user-1";
+        private double amount;
+
+        private void next() {
+            sender = random.nextInt(10) == 0 ? "user-" + random.nextInt(USERS) : new String(sender);
+            receiver = random.nextInt(10) == 0 ? "user-" + random.nextInt(USERS) : new String(receiver);
+            amount = random.nextInt(100_000) / 100.0;
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.designpattern.comportamentais.observer.benchmark;
+
+import br.com.designpattern.comportamentais.observer.domain.events.Event;
+import br.com.designpattern.comportamentais.observer.service.BatchEventListener;
+import br.com.designpattern.comportamentais.observer.service.NotificationManager;
+import br.com.designpattern.comportamentais.observer.service.dispatch.DeliveryOptions;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Chamadas ao serviço downstream durante um pico de vendas: cada pedido gera ORDER_CREATED e, logo depois,
+// PAYMENT_APPROVED. Compara a entrega evento a evento com lotes e com lotes + coalescência por pedido.
+public class BatchingBenchmark {
+
+    private static final int ORDERS = 100_000;
+    private static final long CALL_NANOS = 20_000; // custo fixo de cada chamada ao serviço de notificação
+
+    public static void main(String[] args) {
+        run("evento a evento", new DeliveryOptions.Builder().partitions(4).queueCapacity(10_000).build());
+        run("lotes de 500 / 20ms", new DeliveryOptions.Builder().partitions(4).queueCapacity(10_000)
+                .batch(500, Duration.ofMillis(20)).build());
+        run("lotes + coalescência", new DeliveryOptions.Builder().partitions(4).queueCapacity(10_000)
+                .batch(500, Duration.ofMillis(20)).coalesce(true).build());
+    }
+
+    private static void run(String name, DeliveryOptions options) {
+        AtomicLong calls = new AtomicLong();
+        AtomicLong events = new AtomicLong();
+        BatchEventListener downstream = batch -> {
+            calls.incrementAndGet();
+            events.addAndGet(batch.size());
+            LockSupport.parkNanos(CALL_NANOS);
+        };
+        NotificationManager manager = new NotificationManager();
+        manager.subscribe("ORDER_CREATED", downstream, options);
+        manager.subscribe("PAYMENT_APPROVED", downstream, options);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            String orderId = "order-" + i;
+            manager.notify(new Event("ORDER_CREATED", "New order created.", orderId));
+            manager.notify(new Event("PAYMENT_APPROVED", "Payment approved.", orderId));
+        }
+        manager.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-22s %,9d chamadas %,9d eventos entregues %6.2f s%n", name, calls.get(), events.get(), seconds);
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.designpattern.comportamentais.observer.benchmark;
+
+import br.com.designpattern.comportamentais.observer.domain.events.Event;
+import br.com.designpattern.comportamentais.observer.log.ConsumerOffsets;
+import br.com.designpattern.comportamentais.observer.log.EventLog;
+import br.com.designpattern.comportamentais.observer.service.EventListener;
+import br.com.designpattern.comportamentais.observer.service.NotificationManager;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Bytes alocados e tempo por notify: registro antigo (HashMap de ArrayList) contra o registro copy-on-write.
+// A alocação é medida pelo contador da própria thread (com.sun.management.ThreadMXBean).
+// Também mede o caminho configurado na aplicação (NotificationConfig), com EventLog e ConsumerOffsets em um
+// diretório temporário: cada notify grava o evento e espera o fsync, então roda menos vezes.
+// Depois, uma thread assina e cancela listeners sem parar enquanto outra notifica: o registro antigo
+// costuma falhar com ConcurrentModificationException, o atual não.
+public class NotifyAllocationBenchmark {
+
+    private static final int NOTIFICATIONS = 5_000_000;
+    private static final int LOGGED_NOTIFICATIONS = 20_000;
+    private static final int LISTENERS = 8;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long handled;
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Event event = new Event("ORDER_CREATED", "New order created.", "order-1");
+        EventListener listener = new CountingListener();
+
+        LegacyRegistry legacy = new LegacyRegistry();
+        NotificationManager manager = new NotificationManager();
+        for (int i = 0; i < LISTENERS; i++) {
+            legacy.subscribe("ORDER_CREATED", listener);
+            manager.subscribe("ORDER_CREATED", listener);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            measure("HashMap + ArrayList", NOTIFICATIONS, () -> legacy.notify(event));
+            measure("copy-on-write", NOTIFICATIONS, () -> manager.notify(event));
+        }
+
+        Path directory = Files.createTempDirectory("notify-benchmark");
+        EventLog eventLog = new EventLog(directory.resolve("events"), 64L * 1024 * 1024, Duration.ofHours(1));
+        ConsumerOffsets offsets = new ConsumerOffsets(directory.resolve("offsets"), Duration.ofSeconds(1));
+        try {
+            NotificationManager logged = new NotificationManager(eventLog, offsets);
+            for (int i = 0; i < LISTENERS; i++) {
+                logged.subscribe("ORDER_CREATED", listener);
+            }
+            for (int round = 0; round < 3; round++) {
+                measure("com EventLog", LOGGED_NOTIFICATIONS, () -> logged.notify(event));
+            }
+        } finally {
+            eventLog.close();
+            offsets.close();
+        }
+
+        System.out.println("concorrência HashMap + ArrayList: " + concurrent(legacy::subscribe, legacy::unsubscribe, legacy::notify));
+        System.out.println("concorrência copy-on-write:       " + concurrent(manager::subscribe, manager::unsubscribe, manager::notify));
+        System.out.println(handled);
+    }
+
+    private static void measure(String name, int notifications, Runnable notify) {
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < notifications; i++) {
+            notify.run();
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-20s %9.1f ns/notify %8.3f bytes/notify%n", name, (double) nanos / notifications, (double) bytes / notifications);
+    }
+
+    private static String concurrent(Subscription subscribe, Subscription unsubscribe, Consumer<Event> notify)
+            throws InterruptedException {
+        Event event = new Event("PAYMENT_APPROVED", "Payment approved.", "order-1");
+        EventListener listener = e -> handled++;
+        Thread mutator = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                subscribe.apply("PAYMENT_APPROVED", listener);
+                unsubscribe.apply("PAYMENT_APPROVED", listener);
+            }
+        });
+        mutator.start();
+        try {
+            while (mutator.isAlive()) {
+                notify.accept(event);
+            }
+            return "ok";
+        } catch (ConcurrentModificationException | NullPointerException | ArrayIndexOutOfBoundsException e) {
+            return "falhou com " + e.getClass().getSimpleName();
+        } finally {
+            mutator.join();
+        }
+    }
+
+    // Classe nomeada: o nome do listener vira o nome do arquivo de offsets
+    private static final class CountingListener implements EventListener {
+        @Override
+        public void update(Event event) {
+            handled++;
+        }
+    }
+
+    private interface Subscription {
+        void apply(String eventType, EventListener listener);
+    }
+
+    // Registro como era antes: HashMap de ArrayList, sem sincronização
+    private static final class LegacyRegistry {
+        private final Map<String, List<EventListener>> listeners = new HashMap<>();
+
+        private void subscribe(String eventType, EventListener listener) {
+            listeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(listener);
+        }
+
+        private void unsubscribe(String eventType, EventListener listener) {
+            List<EventListener> users = listeners.get(eventType);
+            if (users != null) {
+                users.remove(listener);
+            }
+        }
+
+        private void notify(Event event) {
+            List<EventListener> users = listeners.get(event.getType());
+            if (users != null) {
+                for (EventListener listener : users) {
+                    listener.update(event);
+                }
+            }
+        }
+    }
+}
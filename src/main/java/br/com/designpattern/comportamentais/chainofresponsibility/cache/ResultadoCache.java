@@ -0,0 +1,244 @@
+package br.com.designpattern.comportamentais.chainofresponsibility.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Cache de resultados de um handler com expiração (TTL) e despejo no estilo W-TinyLFU:
+// uma janela LRU pequena recebe as novas chaves; ao sair da janela, a chave só entra na área principal
+// se for acessada com mais frequência (estimada por um count-min sketch) que a vítima LRU da área principal.
+//
+// A leitura não usa lock: o resultado vem de um ConcurrentHashMap, a frequência é contada com CAS e o acesso
+// é anotado em um buffer por faixa de threads. O lock só é usado para admissão e despejo: quem grava (ou quem
+// enche um buffer de leituras, se o lock estiver livre) aplica os acessos anotados às ordens LRU.
+// O buffer pode perder acessos sob contenção; a ordem LRU fica aproximada, como no próprio W-TinyLFU.
+public class ResultadoCache {
+
+    private static final double PROPORCAO_JANELA = 0.01;
+    private static final int FAIXAS = 16;
+    private static final int TAMANHO_BUFFER = 32;
+    // Os contadores das faixas ficam 8 longs (uma linha de cache) um do outro
+    private static final int ESPACAMENTO = 8;
+    private static final Object PRESENTE = new Object();
+
+    private final long ttlNanos;
+    private final int maximoJanela;
+    private final int maximoPrincipal;
+    private final ConcurrentHashMap<Object, Entrada> dados = new ConcurrentHashMap<>();
+    private final FrequenciaSketch frequencia;
+
+    // Acessos ainda não aplicados às ordens LRU: TAMANHO_BUFFER posições por faixa
+    private final AtomicReferenceArray<Object> leituras = new AtomicReferenceArray<>(FAIXAS * TAMANHO_BUFFER);
+    private final AtomicLongArray leiturasPorFaixa = new AtomicLongArray(FAIXAS * ESPACAMENTO);
+
+    // Ordens LRU (chaves em ordem de acesso), só alteradas com o lock, junto com as escritas em dados
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] drenadasPorFaixa = new long[FAIXAS];
+    private final LinkedHashMap<Object, Object> janela = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Object, Object> principal = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder despejos = new LongAdder();
+
+    public ResultadoCache(long ttlNanos, int tamanhoMaximo) {
+        this.ttlNanos = ttlNanos;
+        this.maximoJanela = Math.max(1, (int) (tamanhoMaximo * PROPORCAO_JANELA));
+        this.maximoPrincipal = Math.max(1, tamanhoMaximo - maximoJanela);
+        this.frequencia = new FrequenciaSketch(tamanhoMaximo);
+    }
+
+    // Retorna o resultado em cache ou null quando não há resultado válido para a chave
+    public Boolean get(Object chave) {
+        frequencia.incrementar(chave);
+        Entrada entrada = dados.get(chave);
+        if (entrada == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - entrada.expiraEm > 0) {
+            remover(chave, entrada);
+            misses.increment();
+            return null;
+        }
+        registrarLeitura(chave);
+        hits.increment();
+        return entrada.aprovado;
+    }
+
+    public void put(Object chave, boolean aprovado) {
+        Entrada entrada = new Entrada(aprovado, System.nanoTime() + ttlNanos);
+        lock.lock();
+        try {
+            drenarLeituras();
+            frequencia.envelhecerSeNecessario();
+            dados.put(chave, entrada);
+            if (principal.get(chave) != null) {
+                return;
+            }
+            janela.put(chave, PRESENTE);
+            if (janela.size() > maximoJanela) {
+                admitir(removerMaisAntigo(janela));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Long> estatisticas() {
+        Map<String, Long> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("hits", hits.sum());
+        estatisticas.put("misses", misses.sum());
+        estatisticas.put("despejos", despejos.sum());
+        return estatisticas;
+    }
+
+    // Anota o acesso no buffer da faixa da thread; quem completa um buffer tenta aplicar os acessos sem esperar o lock
+    private void registrarLeitura(Object chave) {
+        int faixa = (int) Thread.currentThread().getId() & (FAIXAS - 1);
+        int posicao = (int) (leiturasPorFaixa.getAndIncrement(faixa * ESPACAMENTO) & (TAMANHO_BUFFER - 1));
+        leituras.lazySet(faixa * TAMANHO_BUFFER + posicao, chave);
+        if (posicao == TAMANHO_BUFFER - 1 && lock.tryLock()) {
+            try {
+                drenarLeituras();
+                frequencia.envelhecerSeNecessario();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Chamado com o lock: move as chaves lidas desde a última drenagem para o fim da ordem LRU da área em que estão
+    private void drenarLeituras() {
+        for (int faixa = 0; faixa < FAIXAS; faixa++) {
+            long escritas = leiturasPorFaixa.get(faixa * ESPACAMENTO);
+            for (long n = Math.max(drenadasPorFaixa[faixa], escritas - TAMANHO_BUFFER); n < escritas; n++) {
+                Object chave = leituras.getAndSet(faixa * TAMANHO_BUFFER + (int) (n & (TAMANHO_BUFFER - 1)), null);
+                if (chave != null && janela.get(chave) == null) {
+                    principal.get(chave);
+                }
+            }
+            drenadasPorFaixa[faixa] = escritas;
+        }
+    }
+
+    // A entrada só é removida se ainda for a mesma: um put concorrente pode já ter gravado um resultado novo
+    private void remover(Object chave, Entrada expirada) {
+        lock.lock();
+        try {
+            if (dados.remove(chave, expirada)) {
+                janela.remove(chave);
+                principal.remove(chave);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Chamado com o lock
+    private void admitir(Object candidato) {
+        if (principal.size() < maximoPrincipal) {
+            principal.put(candidato, PRESENTE);
+            return;
+        }
+
+        Object vitima = principal.keySet().iterator().next();
+        if (frequencia.estimar(candidato) > frequencia.estimar(vitima)) {
+            principal.remove(vitima);
+            dados.remove(vitima);
+            principal.put(candidato, PRESENTE);
+        } else {
+            // O candidato é descartado: acessos raros não expulsam chaves frequentes
+            dados.remove(candidato);
+        }
+        despejos.increment();
+    }
+
+    private static Object removerMaisAntigo(LinkedHashMap<Object, Object> mapa) {
+        Iterator<Object> iterator = mapa.keySet().iterator();
+        Object maisAntigo = iterator.next();
+        iterator.remove();
+        return maisAntigo;
+    }
+
+    private static final class Entrada {
+        private final boolean aprovado;
+        private final long expiraEm;
+
+        private Entrada(boolean aprovado, long expiraEm) {
+            this.aprovado = aprovado;
+            this.expiraEm = expiraEm;
+        }
+    }
+
+    // Count-min sketch com 4 linhas de contadores de até 15, incrementados com CAS (sem lock).
+    // Os contadores são divididos por 2 periodicamente, com o lock do cache, para que a frequência
+    // reflita o tráfego recente
+    private static final class FrequenciaSketch {
+        private static final int[] SEMENTES = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+        private static final int MAXIMO = 15;
+
+        private final AtomicIntegerArray[] contadores = new AtomicIntegerArray[SEMENTES.length];
+        private final int mascara;
+        private final int periodoReset;
+        private final LongAdder incrementos = new LongAdder();
+
+        private FrequenciaSketch(int tamanhoMaximo) {
+            int largura = Integer.highestOneBit(Math.max(16, tamanhoMaximo) - 1) << 1;
+            for (int i = 0; i < SEMENTES.length; i++) {
+                contadores[i] = new AtomicIntegerArray(largura);
+            }
+            this.mascara = largura - 1;
+            this.periodoReset = 10 * Math.max(16, tamanhoMaximo);
+        }
+
+        private void incrementar(Object chave) {
+            int hash = chave.hashCode();
+            for (int i = 0; i < SEMENTES.length; i++) {
+                AtomicIntegerArray linha = contadores[i];
+                int indice = indice(hash, i);
+                int atual;
+                while ((atual = linha.get(indice)) < MAXIMO && !linha.compareAndSet(indice, atual, atual + 1)) {
+                    // Outro incremento ganhou a corrida: tenta de novo com o valor atual
+                }
+            }
+            incrementos.increment();
+        }
+
+        private int estimar(Object chave) {
+            int hash = chave.hashCode();
+            int minimo = MAXIMO;
+            for (int i = 0; i < SEMENTES.length; i++) {
+                minimo = Math.min(minimo, contadores[i].get(indice(hash, i)));
+            }
+            return minimo;
+        }
+
+        // Chamado com o lock do cache; incrementos concorrentes com o reset podem se perder, o que só atrasa o próximo
+        private void envelhecerSeNecessario() {
+            if (incrementos.sum() < periodoReset) {
+                return;
+            }
+            incrementos.reset();
+            for (AtomicIntegerArray linha : contadores) {
+                for (int i = 0; i < linha.length(); i++) {
+                    int atual;
+                    do {
+                        atual = linha.get(i);
+                    } while (!linha.compareAndSet(i, atual, atual >> 1));
+                }
+            }
+        }
+
+        private int indice(int hash, int linha) {
+            int h = (hash ^ SEMENTES[linha]) * 0x45D9F3B;
+            return (h ^ (h >>> 16)) & mascara;
+        }
+    }
+}
@@ -5,10 +5,17 @@ import br.com.designpattern.comportamentais.chainofresponsibility.service.Pedido
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 public class PedidoController {
 
@@ -20,11 +27,36 @@ public class PedidoController {
     }
 
     @PostMapping("/chainofresponsibility/processar-pedido")
-    public ResponseEntity<String> processarPedido(@RequestBody Pedido pedido) {
-        boolean pedidoValido = pedidoService.processarPedido(pedido);
+    public ResponseEntity<String> processarPedido(@RequestBody Pedido pedido,
+                                                  @RequestParam(value = "cache", defaultValue = "true") boolean usarCache) {
+        boolean pedidoValido = pedidoService.processarPedido(pedido, usarCache);
         if (!pedidoValido) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Pedido inválido");
         }
         return ResponseEntity.ok("Pedido processado com sucesso");
     }
+
+    // Valida um lote de pedidos (ex.: importação de marketplace) e devolve as posições dos pedidos inválidos
+    @PostMapping("/chainofresponsibility/processar-pedidos")
+    public Map<String, Object> processarPedidos(@RequestBody List<Pedido> pedidos,
+                                                @RequestParam(value = "cache", defaultValue = "true") boolean usarCache) {
+        boolean[] aprovados = pedidoService.processarPedidos(pedidos, usarCache);
+        List<Integer> invalidos = new ArrayList<>();
+        for (int i = 0; i < aprovados.length; i++) {
+            if (!aprovados[i]) {
+                invalidos.add(i);
+            }
+        }
+
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put("total", pedidos.size());
+        resposta.put("validos", pedidos.size() - invalidos.size());
+        resposta.put("invalidos", invalidos);
+        return resposta;
+    }
+
+    @GetMapping("/chainofresponsibility/handlers")
+    public List<Map<String, Object>> listarHandlers() {
+        return pedidoService.estatisticasHandlers();
+    }
 }
@@ -0,0 +1,20 @@
+package br.com.designpattern.comportamentais.chainofresponsibility.handler;
+
+import br.com.designpattern.comportamentais.chainofresponsibility.model.Pedido;
+
+import java.time.Duration;
+
+// Handlers determinísticos podem implementar esta interface para ter o resultado memorizado pelo pipeline
+public interface CacheavelHandler extends PedidoHandler {
+
+    // Chave que determina o resultado (ex.: o cliente do pedido)
+    Object chaveCache(Pedido pedido);
+
+    default Duration ttlCache() {
+        return Duration.ofMinutes(5);
+    }
+
+    default int tamanhoMaximoCache() {
+        return 10_000;
+    }
+}
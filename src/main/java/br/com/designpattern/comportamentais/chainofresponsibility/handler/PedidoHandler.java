@@ -2,6 +2,34 @@ package br.com.designpattern.comportamentais.chainofresponsibility.handler;
 
 import br.com.designpattern.comportamentais.chainofresponsibility.model.Pedido;
 
+import java.util.List;
+import java.util.Set;
+
 public interface PedidoHandler {
     boolean processar(Pedido pedido);
+
+    // Valida um lote de pedidos; o resultado i corresponde a pedidos.get(i).
+    // Handlers que conseguem consultar o lote inteiro de uma vez devem sobrescrever este método.
+    default boolean[] processar(List<Pedido> pedidos) {
+        boolean[] resultados = new boolean[pedidos.size()];
+        for (int i = 0; i < resultados.length; i++) {
+            resultados[i] = processar(pedidos.get(i));
+        }
+        return resultados;
+    }
+
+    // Custo relativo estimado (ex.: latência esperada); handlers baratos executam primeiro
+    default int custo() {
+        return 1;
+    }
+
+    // Probabilidade estimada de o handler rejeitar um pedido; quem rejeita mais executa primeiro
+    default double probabilidadeRejeicao() {
+        return 0.5;
+    }
+
+    // Handlers que precisam aprovar o pedido antes deste; os demais podem executar em paralelo
+    default Set<Class<? extends PedidoHandler>> dependencias() {
+        return Set.of();
+    }
 }
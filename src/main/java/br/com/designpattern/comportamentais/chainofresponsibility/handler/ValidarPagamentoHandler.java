@@ -4,7 +4,7 @@ import br.com.designpattern.comportamentais.chainofresponsibility.model.Pedido;
 import org.springframework.stereotype.Component;
 
 @Component
-public class ValidarPagamentoHandler implements PedidoHandler {
+public class ValidarPagamentoHandler implements CacheavelHandler {
 
     @Override
     public boolean processar(Pedido pedido) {
@@ -15,6 +15,17 @@ public class ValidarPagamentoHandler implements PedidoHandler {
         return true;
     }
 
+    @Override
+    public int custo() {
+        return 5; // Chamada ao gateway de pagamento
+    }
+
+    // A situação de pagamento depende apenas do cliente, então o resultado pode ser reaproveitado
+    @Override
+    public Object chaveCache(Pedido pedido) {
+        return pedido.getCliente();
+    }
+
     private boolean pagamentoValido(Pedido pedido) {
         // Implementação fictícia de validação de pagamento
         return true;
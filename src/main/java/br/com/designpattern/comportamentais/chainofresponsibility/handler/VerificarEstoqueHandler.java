@@ -3,6 +3,9 @@ package br.com.designpattern.comportamentais.chainofresponsibility.handler;
 import br.com.designpattern.comportamentais.chainofresponsibility.model.Pedido;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Component
 public class VerificarEstoqueHandler implements PedidoHandler {
 
@@ -15,8 +18,26 @@ public class VerificarEstoqueHandler implements PedidoHandler {
         return true; // Passa para o próximo handler
     }
 
+    @Override
+    public boolean[] processar(List<Pedido> pedidos) {
+        // Uma única consulta ao estoque para o lote inteiro, em vez de uma por pedido
+        return estoqueDisponivel(pedidos);
+    }
+
+    @Override
+    public int custo() {
+        return 2; // Consulta ao estoque local
+    }
+
     private boolean estoqueDisponivel(Pedido pedido) {
         // Implementação fictícia de verificação de estoque
         return true;
     }
+
+    private boolean[] estoqueDisponivel(List<Pedido> pedidos) {
+        // Implementação fictícia de verificação de estoque em lote
+        boolean[] disponiveis = new boolean[pedidos.size()];
+        Arrays.fill(disponiveis, true);
+        return disponiveis;
+    }
 }
@@ -12,6 +12,14 @@ public class Pedido {
         this.status = "Novo";
     }
 
+    public Long getId() {
+        return id;
+    }
+
+    public String getCliente() {
+        return cliente;
+    }
+
     public void setStatus(String status) {
         this.status = status;
     }
@@ -0,0 +1,100 @@
+package br.com.designpattern.comportamentais.chainofresponsibility.pipeline;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Estatísticas de um handler: execuções, rejeições e histograma de latência em faixas de potência de 2 (µs).
+// A gravação é feita no caminho quente sem locks; a leitura é aproximada e serve para ranking e observabilidade.
+public class HandlerEstatisticas {
+
+    private static final int FAIXAS = 32;
+    private static final double SUAVIZACAO = 0.5;
+
+    private final LongAdder execucoes = new LongAdder();
+    private final LongAdder rejeicoes = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLongArray histograma = new AtomicLongArray(FAIXAS);
+
+    // Valores da janela anterior e médias móveis, atualizados apenas pela thread de reordenação
+    private long execucoesAnteriores;
+    private long rejeicoesAnteriores;
+    private long nanosAnteriores;
+    private volatile double custoMedioNanos = Double.NaN;
+    private volatile double taxaRejeicao = Double.NaN;
+
+    public void registrar(long nanos, boolean aprovado) {
+        execucoes.increment();
+        totalNanos.add(nanos);
+        if (!aprovado) {
+            rejeicoes.increment();
+        }
+        long micros = Math.max(1, nanos / 1_000);
+        histograma.incrementAndGet(Math.min(FAIXAS - 1, 63 - Long.numberOfLeadingZeros(micros)));
+    }
+
+    // Registra um lote: a latência média por item entra no histograma uma vez para cada item
+    public void registrarLote(long nanos, int itens, int rejeitados) {
+        if (itens == 0) {
+            return;
+        }
+        execucoes.add(itens);
+        totalNanos.add(nanos);
+        rejeicoes.add(rejeitados);
+        long micros = Math.max(1, nanos / itens / 1_000);
+        histograma.addAndGet(Math.min(FAIXAS - 1, 63 - Long.numberOfLeadingZeros(micros)), itens);
+    }
+
+    // Fecha a janela atual e atualiza as médias móveis, para acompanhar mudanças no tráfego
+    void fecharJanela() {
+        long exec = execucoes.sum();
+        long rej = rejeicoes.sum();
+        long nanos = totalNanos.sum();
+        long execJanela = exec - execucoesAnteriores;
+        if (execJanela > 0) {
+            double custo = (double) (nanos - nanosAnteriores) / execJanela;
+            // Suavização de Laplace: evita taxa 0 ou 1 com poucas amostras
+            double taxa = (rej - rejeicoesAnteriores + 1.0) / (execJanela + 2.0);
+            custoMedioNanos = Double.isNaN(custoMedioNanos) ? custo : SUAVIZACAO * custo + (1 - SUAVIZACAO) * custoMedioNanos;
+            taxaRejeicao = Double.isNaN(taxaRejeicao) ? taxa : SUAVIZACAO * taxa + (1 - SUAVIZACAO) * taxaRejeicao;
+        }
+        execucoesAnteriores = exec;
+        rejeicoesAnteriores = rej;
+        nanosAnteriores = nanos;
+    }
+
+    public long getExecucoes() {
+        return execucoes.sum();
+    }
+
+    public long getRejeicoes() {
+        return rejeicoes.sum();
+    }
+
+    public double getCustoMedioNanos() {
+        return custoMedioNanos;
+    }
+
+    public double getTaxaRejeicao() {
+        return taxaRejeicao;
+    }
+
+    // Limite superior (µs) da faixa do histograma que contém o percentil informado
+    public long percentilMicros(double percentil) {
+        long total = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            total += histograma.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(total * percentil);
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += histograma.get(i);
+            if (acumulado >= alvo) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << FAIXAS;
+    }
+}
@@ -0,0 +1,420 @@
+package br.com.designpattern.comportamentais.chainofresponsibility.pipeline;
+
+import br.com.designpattern.comportamentais.chainofresponsibility.cache.ResultadoCache;
+import br.com.designpattern.comportamentais.chainofresponsibility.handler.CacheavelHandler;
+import br.com.designpattern.comportamentais.chainofresponsibility.handler.PedidoHandler;
+import br.com.designpattern.comportamentais.chainofresponsibility.model.Pedido;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Executa os handlers em etapas: cada etapa contém handlers cujas dependências já foram aprovadas.
+// Dentro de uma etapa, os handlers baratos rodam primeiro na própria thread e os caros rodam em paralelo.
+// Barato ou caro é decidido pelo custo médio observado, quando há amostras, e antes disso pelo custo declarado.
+// A primeira rejeição interrompe o pedido e cancela os handlers que ainda estão executando.
+public class PedidoPipeline {
+
+    private static final int CUSTO_INLINE = 1;
+    // Abaixo disso, enviar o handler ao pool custa mais que executá-lo na thread do pedido
+    private static final double CUSTO_INLINE_NANOS = 50_000;
+    private static final int MIN_AMOSTRAS = 100;
+
+    // Handlers baratos e com alta chance de rejeição primeiro, pelas estimativas declaradas
+    private static final Comparator<HandlerMonitorado> POR_ESTIMATIVA = Comparator.comparingDouble(
+            monitorado -> monitorado.handler.custo() / Math.max(monitorado.handler.probabilidadeRejeicao(), 0.01));
+
+    // ... e pelos valores observados, depois que há amostras suficientes
+    private static final Comparator<HandlerMonitorado> POR_OBSERVACAO = Comparator.comparingDouble(
+            monitorado -> monitorado.estatisticas.getCustoMedioNanos() / monitorado.estatisticas.getTaxaRejeicao());
+
+    // Arrays imutáveis: a reordenação monta novos arrays e troca a referência, sem bloquear o caminho quente
+    private volatile Etapa[] etapas;
+    private final ExecutorService executor;
+
+    public PedidoPipeline(List<PedidoHandler> handlers, ExecutorService executor) {
+        this.etapas = montarEtapas(handlers);
+        this.executor = executor;
+    }
+
+    public boolean processar(Pedido pedido) {
+        return processar(pedido, true);
+    }
+
+    // Com usarCache = false os handlers cacheáveis são reexecutados e o resultado novo substitui o do cache
+    public boolean processar(Pedido pedido, boolean usarCache) {
+        for (Etapa etapa : etapas) {
+            if (!processarEtapa(etapa, pedido, usarCache)) {
+                return false; // Interrompe o processamento se alguma validação falhar
+            }
+        }
+        return true; // Todas as validações foram bem-sucedidas
+    }
+
+    // Valida um lote: cada handler recebe de uma vez os pedidos que ainda não foram rejeitados
+    public boolean[] processar(List<Pedido> pedidos) {
+        return processar(pedidos, true);
+    }
+
+    public boolean[] processar(List<Pedido> pedidos, boolean usarCache) {
+        boolean[] aprovados = new boolean[pedidos.size()];
+        Arrays.fill(aprovados, true);
+        for (Etapa etapa : etapas) {
+            for (HandlerMonitorado monitorado : etapa.inline) {
+                aplicarLote(List.of(monitorado), pedidos, aprovados, usarCache);
+            }
+            if (etapa.paralelos.length > 0) {
+                aplicarLote(List.of(etapa.paralelos), pedidos, aprovados, usarCache);
+            }
+        }
+        return aprovados;
+    }
+
+    // Reordena cada etapa pelo custo médio e pela taxa de rejeição observados na última janela
+    // e redivide os handlers entre a thread do pedido e o pool pelo custo médio de cada um
+    public void reordenar() {
+        Etapa[] atuais = etapas;
+        Etapa[] novas = new Etapa[atuais.length];
+        for (int i = 0; i < atuais.length; i++) {
+            boolean amostrasSuficientes = true;
+            for (HandlerMonitorado monitorado : atuais[i].ordem) {
+                monitorado.estatisticas.fecharJanela();
+                amostrasSuficientes &= monitorado.estatisticas.getExecucoes() >= MIN_AMOSTRAS;
+            }
+            HandlerMonitorado[] ordem = atuais[i].ordem.clone();
+            if (amostrasSuficientes) {
+                Arrays.sort(ordem, POR_OBSERVACAO);
+            }
+            novas[i] = new Etapa(ordem);
+        }
+        etapas = novas;
+    }
+
+    // Handlers na ordem em que são avaliados (os da própria thread, depois os do pool), por etapa, com as suas estatísticas
+    public List<Map<String, Object>> resumo() {
+        List<Map<String, Object>> resumo = new ArrayList<>();
+        Etapa[] atuais = etapas;
+        for (int i = 0; i < atuais.length; i++) {
+            for (HandlerMonitorado monitorado : atuais[i].avaliacao()) {
+                HandlerEstatisticas estatisticas = monitorado.estatisticas;
+                Map<String, Object> linha = new LinkedHashMap<>();
+                linha.put("etapa", i);
+                linha.put("handler", monitorado.handler.getClass().getSimpleName());
+                linha.put("paralelo", !atuais[i].isInline(monitorado));
+                linha.put("execucoes", estatisticas.getExecucoes());
+                linha.put("rejeicoes", estatisticas.getRejeicoes());
+                linha.put("taxaRejeicao", estatisticas.getTaxaRejeicao());
+                linha.put("custoMedioMicros", estatisticas.getCustoMedioNanos() / 1_000);
+                linha.put("p50Micros", estatisticas.percentilMicros(0.50));
+                linha.put("p99Micros", estatisticas.percentilMicros(0.99));
+                if (monitorado.cache != null) {
+                    linha.put("cache", monitorado.cache.estatisticas());
+                }
+                resumo.add(linha);
+            }
+        }
+        return resumo;
+    }
+
+    private boolean processarEtapa(Etapa etapa, Pedido pedido, boolean usarCache) {
+        for (HandlerMonitorado monitorado : etapa.inline) {
+            if (!monitorado.processar(pedido, usarCache)) {
+                return false;
+            }
+        }
+
+        // O cache é consultado antes de qualquer envio ao pool: um hit não paga troca de thread
+        HandlerMonitorado[] paralelos = etapa.paralelos;
+        HandlerMonitorado[] pendentes = paralelos;
+        int quantidade = paralelos.length;
+        if (usarCache) {
+            pendentes = new HandlerMonitorado[paralelos.length];
+            quantidade = 0;
+            for (HandlerMonitorado monitorado : paralelos) {
+                Boolean emCache = monitorado.emCache(pedido);
+                if (emCache == null) {
+                    pendentes[quantidade++] = monitorado;
+                } else if (!emCache) {
+                    return false;
+                }
+            }
+        }
+
+        // Os pendentes já não estavam no cache: são executados direto e o resultado entra no cache
+        if (quantidade == 0) {
+            return true;
+        }
+        if (quantidade == 1) {
+            return pendentes[0].processar(pedido, false);
+        }
+        return processarEmParalelo(Arrays.copyOf(pendentes, quantidade), pedido, false);
+    }
+
+    // Executa os handlers (em paralelo, se houver mais de um) sobre os pedidos ainda aprovados e marca as rejeições
+    private void aplicarLote(List<HandlerMonitorado> handlers, List<Pedido> pedidos, boolean[] aprovados, boolean usarCache) {
+        List<Pedido> ativos = new ArrayList<>();
+        int[] indices = new int[pedidos.size()];
+        for (int i = 0; i < aprovados.length; i++) {
+            if (aprovados[i]) {
+                indices[ativos.size()] = i;
+                ativos.add(pedidos.get(i));
+            }
+        }
+        if (ativos.isEmpty()) {
+            return;
+        }
+
+        List<boolean[]> resultados = new ArrayList<>(handlers.size());
+        if (handlers.size() == 1) {
+            resultados.add(handlers.get(0).processar(ativos, usarCache));
+        } else {
+            List<Future<boolean[]>> futures = new ArrayList<>(handlers.size());
+            for (HandlerMonitorado monitorado : handlers) {
+                futures.add(executor.submit(() -> monitorado.processar(ativos, usarCache)));
+            }
+            try {
+                for (Future<boolean[]> future : futures) {
+                    resultados.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                Arrays.fill(aprovados, false);
+                return;
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        for (boolean[] resultado : resultados) {
+            for (int i = 0; i < ativos.size(); i++) {
+                if (!resultado[i]) {
+                    aprovados[indices[i]] = false;
+                }
+            }
+        }
+    }
+
+    // Os handlers são enviados na ordem da etapa: com o pool ocupado, os mais prováveis de rejeitar começam antes
+    private boolean processarEmParalelo(HandlerMonitorado[] handlers, Pedido pedido, boolean usarCache) {
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Boolean>> futures = new ArrayList<>(handlers.length);
+        for (HandlerMonitorado monitorado : handlers) {
+            futures.add(completionService.submit(() -> monitorado.processar(pedido, usarCache)));
+        }
+
+        try {
+            // Resultados na ordem em que terminam: a primeira rejeição já decide o pedido
+            for (int i = 0; i < handlers.length; i++) {
+                if (!completionService.take().get()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static Etapa[] montarEtapas(List<PedidoHandler> handlers) {
+        Map<PedidoHandler, Integer> niveis = new HashMap<>();
+        for (PedidoHandler handler : handlers) {
+            nivel(handler, handlers, niveis, new HashSet<>());
+        }
+
+        List<List<HandlerMonitorado>> etapas = new ArrayList<>();
+        for (PedidoHandler handler : handlers) {
+            int nivel = niveis.get(handler);
+            while (etapas.size() <= nivel) {
+                etapas.add(new ArrayList<>());
+            }
+            etapas.get(nivel).add(new HandlerMonitorado(handler));
+        }
+
+        Etapa[] resultado = new Etapa[etapas.size()];
+        for (int i = 0; i < resultado.length; i++) {
+            HandlerMonitorado[] ordem = etapas.get(i).toArray(new HandlerMonitorado[0]);
+            Arrays.sort(ordem, POR_ESTIMATIVA);
+            resultado[i] = new Etapa(ordem);
+        }
+        return resultado;
+    }
+
+    // Nível = 1 + maior nível entre as dependências; handlers sem dependências ficam no nível 0
+    private static int nivel(PedidoHandler handler, List<PedidoHandler> handlers,
+                             Map<PedidoHandler, Integer> niveis, Set<PedidoHandler> visitando) {
+        Integer conhecido = niveis.get(handler);
+        if (conhecido != null) {
+            return conhecido;
+        }
+        if (!visitando.add(handler)) {
+            throw new IllegalStateException("Dependência circular entre handlers: " + handler.getClass().getSimpleName());
+        }
+
+        int nivel = 0;
+        for (Class<? extends PedidoHandler> dependencia : handler.dependencias()) {
+            PedidoHandler requerido = handlers.stream()
+                    .filter(dependencia::isInstance)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Dependência não encontrada: " + dependencia.getSimpleName()));
+            nivel = Math.max(nivel, nivel(requerido, handlers, niveis, visitando) + 1);
+        }
+
+        visitando.remove(handler);
+        niveis.put(handler, nivel);
+        return nivel;
+    }
+
+    // Handlers de uma etapa na ordem de avaliação, já divididos entre a thread do pedido e o pool
+    private static final class Etapa {
+        private final HandlerMonitorado[] ordem;
+        private final HandlerMonitorado[] inline;
+        private final HandlerMonitorado[] paralelos;
+
+        private Etapa(HandlerMonitorado[] ordem) {
+            this.ordem = ordem;
+            List<HandlerMonitorado> baratos = new ArrayList<>();
+            List<HandlerMonitorado> caros = new ArrayList<>();
+            for (HandlerMonitorado monitorado : ordem) {
+                (monitorado.barato() ? baratos : caros).add(monitorado);
+            }
+            this.inline = baratos.toArray(new HandlerMonitorado[0]);
+            this.paralelos = caros.toArray(new HandlerMonitorado[0]);
+        }
+
+        private List<HandlerMonitorado> avaliacao() {
+            List<HandlerMonitorado> avaliacao = new ArrayList<>(List.of(inline));
+            avaliacao.addAll(List.of(paralelos));
+            return avaliacao;
+        }
+
+        private boolean isInline(HandlerMonitorado monitorado) {
+            return List.of(inline).contains(monitorado);
+        }
+    }
+
+    // Handler com as suas estatísticas e, se ele for cacheável, o cache de resultados.
+    // Resultados vindos do cache não entram nas estatísticas, que medem apenas as execuções reais.
+    private static final class HandlerMonitorado {
+        private final PedidoHandler handler;
+        private final HandlerEstatisticas estatisticas = new HandlerEstatisticas();
+        private final ResultadoCache cache;
+
+        private HandlerMonitorado(PedidoHandler handler) {
+            this.handler = handler;
+            this.cache = handler instanceof CacheavelHandler cacheavel
+                    ? new ResultadoCache(cacheavel.ttlCache().toNanos(), cacheavel.tamanhoMaximoCache())
+                    : null;
+        }
+
+        // Pelo custo médio observado, quando há amostras suficientes; antes disso, pelo custo declarado
+        private boolean barato() {
+            double custoObservado = estatisticas.getCustoMedioNanos();
+            if (estatisticas.getExecucoes() >= MIN_AMOSTRAS && !Double.isNaN(custoObservado)) {
+                return custoObservado <= CUSTO_INLINE_NANOS;
+            }
+            return handler.custo() <= CUSTO_INLINE;
+        }
+
+        // Resultado em cache para o pedido, ou null se o handler não é cacheável ou não há resultado válido
+        private Boolean emCache(Pedido pedido) {
+            if (cache == null) {
+                return null;
+            }
+            Object chave = ((CacheavelHandler) handler).chaveCache(pedido);
+            return chave != null ? cache.get(chave) : null;
+        }
+
+        private boolean processar(Pedido pedido, boolean usarCache) {
+            Object chave = cache != null ? ((CacheavelHandler) handler).chaveCache(pedido) : null;
+            if (chave != null && usarCache) {
+                Boolean emCache = cache.get(chave);
+                if (emCache != null) {
+                    return emCache;
+                }
+            }
+
+            long inicio = System.nanoTime();
+            boolean aprovado = handler.processar(pedido);
+            estatisticas.registrar(System.nanoTime() - inicio, aprovado);
+            if (chave != null) {
+                cache.put(chave, aprovado);
+            }
+            return aprovado;
+        }
+
+        // Pedidos com resultado em cache são respondidos direto; o handler recebe só o restante do lote
+        private boolean[] processar(List<Pedido> pedidos, boolean usarCache) {
+            if (cache == null) {
+                return executarLote(pedidos);
+            }
+
+            CacheavelHandler cacheavel = (CacheavelHandler) handler;
+            boolean[] resultados = new boolean[pedidos.size()];
+            Object[] chaves = new Object[pedidos.size()];
+            int[] posicoes = new int[pedidos.size()];
+            List<Pedido> pendentes = new ArrayList<>();
+            for (int i = 0; i < pedidos.size(); i++) {
+                chaves[i] = cacheavel.chaveCache(pedidos.get(i));
+                Boolean emCache = chaves[i] != null && usarCache ? cache.get(chaves[i]) : null;
+                if (emCache != null) {
+                    resultados[i] = emCache;
+                } else {
+                    posicoes[pendentes.size()] = i;
+                    pendentes.add(pedidos.get(i));
+                }
+            }
+            if (pendentes.isEmpty()) {
+                return resultados;
+            }
+
+            boolean[] executados = executarLote(pendentes);
+            for (int j = 0; j < pendentes.size(); j++) {
+                int i = posicoes[j];
+                resultados[i] = executados[j];
+                if (chaves[i] != null) {
+                    cache.put(chaves[i], executados[j]);
+                }
+            }
+            return resultados;
+        }
+
+        private boolean[] executarLote(List<Pedido> pedidos) {
+            long inicio = System.nanoTime();
+            boolean[] resultados = handler.processar(pedidos);
+            int rejeitados = 0;
+            for (boolean aprovado : resultados) {
+                if (!aprovado) {
+                    rejeitados++;
+                }
+            }
+            estatisticas.registrarLote(System.nanoTime() - inicio, pedidos.size(), rejeitados);
+            return resultados;
+        }
+    }
+}
@@ -2,27 +2,82 @@ package br.com.designpattern.comportamentais.chainofresponsibility.service;
 
 import br.com.designpattern.comportamentais.chainofresponsibility.model.Pedido;
 import br.com.designpattern.comportamentais.chainofresponsibility.handler.PedidoHandler;
+import br.com.designpattern.comportamentais.chainofresponsibility.pipeline.PedidoPipeline;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class PedidoService {
 
-    private final List<PedidoHandler> handlers;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService reordenacao = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pedido-reordenacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final PedidoPipeline pipeline;
 
-    @Autowired
     public PedidoService(List<PedidoHandler> handlers) {
-        this.handlers = handlers;
+        this(handlers, 32);
+    }
+
+    // Handlers costumam esperar por I/O (estoque, gateway de pagamento), por isso mais threads que núcleos,
+    // mas em número limitado: com o pool e a fila cheios, a própria thread do pedido executa o handler
+    @Autowired
+    public PedidoService(List<PedidoHandler> handlers, @Value("${chainofresponsibility.handler.threads:32}") int threads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 8), runnable -> {
+                    Thread thread = new Thread(runnable, "pedido-handler");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (tarefa, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Pool de handlers encerrado");
+                    }
+                    tarefa.run();
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+        this.pipeline = new PedidoPipeline(handlers, executor);
+        // Reordena a cadeia periodicamente conforme as rejeições e latências observadas
+        reordenacao.scheduleAtFixedRate(pipeline::reordenar, 30, 30, TimeUnit.SECONDS);
     }
 
     public boolean processarPedido(Pedido pedido) {
-        for (PedidoHandler handler : handlers) {
-            if (!handler.processar(pedido)) {
-                return false; // Interrompe o processamento se alguma validação falhar
-            }
-        }
-        return true; // Todas as validações foram bem-sucedidas
+        return processarPedido(pedido, true);
+    }
+
+    public boolean processarPedido(Pedido pedido, boolean usarCache) {
+        return pipeline.processar(pedido, usarCache);
+    }
+
+    public boolean[] processarPedidos(List<Pedido> pedidos) {
+        return processarPedidos(pedidos, true);
+    }
+
+    public boolean[] processarPedidos(List<Pedido> pedidos, boolean usarCache) {
+        return pipeline.processar(pedidos, usarCache);
+    }
+
+    public List<Map<String, Object>> estatisticasHandlers() {
+        return pipeline.resumo();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reordenacao.shutdownNow();
+        executor.shutdownNow();
     }
 }
@@ -18,4 +18,9 @@ public class BalanceTransferCommand implements TransferCommand {
     public void execute() {
         transferService.transferUsingBalance(request);
     }
+
+    @Override
+    public TransferRequest getRequest() {
+        return request;
+    }
 }
\ No newline at end of file
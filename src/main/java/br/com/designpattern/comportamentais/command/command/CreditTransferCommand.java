@@ -18,4 +18,9 @@ public class CreditTransferCommand implements TransferCommand {
     public void execute() {
         transferService.transferUsingCredit(request);
     }
+
+    @Override
+    public TransferRequest getRequest() {
+        return request;
+    }
 }
\ No newline at end of file
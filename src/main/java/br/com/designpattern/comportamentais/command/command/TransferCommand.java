@@ -1,5 +1,9 @@
 package br.com.designpattern.comportamentais.command.command;
 
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+
 public interface TransferCommand {
     void execute();
+
+    TransferRequest getRequest();
 }
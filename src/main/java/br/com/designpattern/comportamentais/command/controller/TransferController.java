@@ -1,46 +1,108 @@
 package br.com.designpattern.comportamentais.command.controller;
 
-import br.com.designpattern.comportamentais.command.command.BalanceTransferCommand;
-import br.com.designpattern.comportamentais.command.command.CreditTransferCommand;
 import br.com.designpattern.comportamentais.command.command.TransferCommand;
 import br.com.designpattern.comportamentais.command.executor.TransferExecutor;
+import br.com.designpattern.comportamentais.command.factory.TransferCommandFactory;
+import br.com.designpattern.comportamentais.command.idempotency.IdempotencyCache;
+import br.com.designpattern.comportamentais.command.idempotency.IdempotencyConflictException;
 import br.com.designpattern.comportamentais.command.model.TransferRequest;
-import br.com.designpattern.comportamentais.command.service.TransferService;
+import br.com.designpattern.comportamentais.command.service.BulkTransferService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/command/transfers")
 public class TransferController {
 
-    private final TransferService transferService;
+    private final TransferCommandFactory commandFactory;
     private final TransferExecutor transferExecutor;
+    private final BulkTransferService bulkTransferService;
+    private final IdempotencyCache idempotencyCache;
 
-    public TransferController(TransferService transferService, TransferExecutor transferExecutor) {
-        this.transferService = transferService;
+    public TransferController(TransferCommandFactory commandFactory,
+                              TransferExecutor transferExecutor,
+                              BulkTransferService bulkTransferService,
+                              IdempotencyCache idempotencyCache) {
+        this.commandFactory = commandFactory;
         this.transferExecutor = transferExecutor;
+        this.bulkTransferService = bulkTransferService;
+        this.idempotencyCache = idempotencyCache;
     }
 
     @PostMapping
-    public ResponseEntity<String> executeTransfer(@RequestBody TransferRequest request) {
-        TransferCommand command;
-
-        // Aqui podemos utilizar o padrao strategy para selecionar o tipo de comando
-        // Seleciona o tipo de comando baseado na entrada
-        if ("BALANCE".equalsIgnoreCase(request.getType())) {
-            command = new BalanceTransferCommand(transferService, request);
-        } else if ("CREDIT".equalsIgnoreCase(request.getType())) {
-            command = new CreditTransferCommand(transferService, request);
-        } else {
+    public ResponseEntity<String> executeTransfer(@RequestBody TransferRequest request,
+                                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        TransferCommand command = createCommand(request);
+        if (command == null) {
             return ResponseEntity.badRequest().body("Tipo de transferência inválido");
         }
 
-        // Executa o comando
-        transferExecutor.executeCommand(command);
+        // Executa o comando; um retry com a mesma chave espera o resultado da execução original
+        try {
+            idempotencyCache.execute(idempotencyKey, request.fingerprint(), () -> {
+                transferExecutor.executeCommand(command);
+                return CompletableFuture.completedFuture(null);
+            }).join();
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+        }
 
         return ResponseEntity.ok("Transferência realizada com sucesso!");
     }
+
+    @PostMapping("/async")
+    public CompletableFuture<ResponseEntity<String>> executeTransferAsync(@RequestBody TransferRequest request,
+                                                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        TransferCommand command = createCommand(request);
+        if (command == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Tipo de transferência inválido"));
+        }
+
+        try {
+            // Libera a thread do Tomcat: a resposta é escrita quando um worker concluir o comando
+            return idempotencyCache.execute(idempotencyKey, request.fingerprint(), () -> transferExecutor.submitCommand(command))
+                    .thenApply(ignored -> ResponseEntity.ok("Transferência realizada com sucesso!"))
+                    .exceptionally(ex -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Falha na transferência: " + ex.getMessage()));
+        } catch (IdempotencyConflictException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            // Backpressure: fila cheia, o cliente deve tentar novamente mais tarde
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body("Fila de transferências cheia, tente novamente"));
+        }
+    }
+
+    // Recebe NDJSON ou um array JSON e devolve um resultado NDJSON por item, à medida que são concluídos
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void executeBulkTransfer(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bulkTransferService.execute(request.getInputStream(), response.getOutputStream());
+    }
+
+    @GetMapping("/idempotency/stats")
+    public Map<String, Long> idempotencyStats() {
+        return idempotencyCache.stats();
+    }
+
+    private TransferCommand createCommand(TransferRequest request) {
+        // Seleciona o tipo de comando baseado na entrada
+        return commandFactory.create(request);
+    }
 }
@@ -0,0 +1,47 @@
+package br.com.designpattern.comportamentais.command.executor;
+
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Lock striping por conta: cada conta é mapeada para uma faixa (stripe) com o seu próprio lock
+public class AccountLockStripes {
+
+    private final ReentrantLock[] locks;
+
+    public AccountLockStripes(int stripes) {
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public int stripeOf(String account) {
+        return Math.floorMod(account == null ? 0 : account.hashCode(), locks.length);
+    }
+
+    public void runLocked(TransferRequest request, Runnable action) {
+        int from = stripeOf(request.getAccountFrom());
+        int to = stripeOf(request.getAccountTo());
+
+        // Sempre adquire na mesma ordem (menor faixa primeiro) para evitar deadlock em A→B / B→A
+        ReentrantLock first = locks[Math.min(from, to)];
+        ReentrantLock second = locks[Math.max(from, to)];
+
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                action.run();
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+}
@@ -1,11 +1,184 @@
 package br.com.designpattern.comportamentais.command.executor;
 
 import br.com.designpattern.comportamentais.command.command.TransferCommand;
+import br.com.designpattern.comportamentais.command.journal.TransferJournal;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @Service
 public class TransferExecutor {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 64;
+    // Transferências são dominadas por I/O (banco, gateways), por isso mais shards que CPUs
+    private static final int SHARDS = Math.max(16, 2 * Runtime.getRuntime().availableProcessors());
+    // Bem mais faixas que shards: duas contas só disputam o mesmo lock se caírem na mesma faixa
+    private static final int LOCK_STRIPES = 1024;
+
+    // Cada shard tem a sua fila e um único worker: comandos da mesma conta de origem são executados em ordem
+    private final Shard[] shards;
+    private final AccountLockStripes accountLocks;
+    // Todo comando passa pelo journal antes de ser executado (write-ahead)
+    private final TransferJournal journal;
+    private final int batchSize;
+    private volatile boolean running = true;
+
+    @Autowired
+    public TransferExecutor(TransferJournal journal) {
+        this(journal, QUEUE_CAPACITY, SHARDS, BATCH_SIZE);
+    }
+
+    public TransferExecutor(TransferJournal journal, int queueCapacity, int shardCount, int batchSize) {
+        this.journal = journal;
+        this.shards = new Shard[shardCount];
+        this.accountLocks = new AccountLockStripes(LOCK_STRIPES);
+        this.batchSize = batchSize;
+        int shardCapacity = Math.max(1, queueCapacity / shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(shardCapacity, "transfer-worker-" + i);
+        }
+    }
+
+    // Execução síncrona, na thread de quem chama
     public void executeCommand(TransferCommand command) {
-        command.execute();
+        long sequence = journal.append(command.getRequest());
+        journal.sync();
+        run(command, sequence);
+    }
+
+    // Recuperação: o comando já está no journal com esta sequência, então não é gravado de novo.
+    // Não espera o fsync do DONE: quem reexecuta chama journal.sync() a cada lote, e um DONE perdido
+    // só faz o comando voltar como pendente.
+    public void replayCommand(TransferCommand command, long sequence) {
+        run(command, sequence);
+    }
+
+    // Execução assíncrona: enfileira o comando no shard da conta de origem e devolve um future imediatamente
+    public CompletableFuture<Void> submitCommand(TransferCommand command) {
+        PendingCommand pending = new PendingCommand(command);
+        Shard shard = shards[shardOf(command.getRequest().getAccountFrom())];
+        if (!running || !shard.queue.offer(pending)) {
+            throw new RejectedExecutionException("Fila de transferências cheia");
+        }
+        // O shutdown pode ter drenado a fila entre a checagem de running e o offer: nesse caso ninguém mais
+        // consumiria o comando. Se ele ainda está na fila, é retirado e rejeitado; senão, o worker ou o
+        // shutdown já o pegou e vai completar o future.
+        if (!running && shard.queue.remove(pending)) {
+            throw new RejectedExecutionException("Executor encerrado");
+        }
+        return pending.future;
+    }
+
+    public int pendingCommands() {
+        int pending = 0;
+        for (Shard shard : shards) {
+            pending += shard.queue.size();
+        }
+        return pending;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Shard shard : shards) {
+            shard.worker.interrupt();
+
+            List<PendingCommand> remaining = new ArrayList<>();
+            shard.queue.drainTo(remaining);
+            for (PendingCommand pending : remaining) {
+                pending.future.completeExceptionally(new RejectedExecutionException("Executor encerrado"));
+            }
+        }
+    }
+
+    private void drainLoop(BlockingQueue<PendingCommand> queue) {
+        List<PendingCommand> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                // Bloqueia até chegar um comando e drena o que mais estiver disponível, em lote
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // Grava o lote inteiro no journal e espera um único fsync antes de executar
+            for (PendingCommand pending : batch) {
+                try {
+                    pending.sequence = journal.append(pending.command.getRequest());
+                } catch (RuntimeException e) {
+                    pending.future.completeExceptionally(e);
+                }
+            }
+            try {
+                journal.sync();
+            } catch (RuntimeException e) {
+                // Sem fsync nenhum comando do lote pode ser executado. O worker continua vivo: com o journal
+                // indisponível, os próximos lotes falham já no append e os seus futures também são completados.
+                for (PendingCommand pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+                batch.clear();
+                continue;
+            }
+
+            for (PendingCommand pending : batch) {
+                if (pending.future.isDone()) {
+                    continue;
+                }
+                try {
+                    run(pending.command, pending.sequence);
+                    pending.future.complete(null);
+                } catch (RuntimeException e) {
+                    pending.future.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private int shardOf(String account) {
+        return Math.floorMod(account == null ? 0 : account.hashCode(), shards.length);
+    }
+
+    private void run(TransferCommand command, long sequence) {
+        try {
+            // O lock da conta de destino protege contra comandos de outros shards que a tocam
+            accountLocks.runLocked(command.getRequest(), command::execute);
+        } finally {
+            journal.markDone(sequence);
+        }
+    }
+
+    private final class Shard {
+        // ArrayBlockingQueue é um ring buffer limitado: quando enche, novos comandos são rejeitados
+        private final BlockingQueue<PendingCommand> queue;
+        private final Thread worker;
+
+        private Shard(int capacity, String name) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.worker = new Thread(() -> drainLoop(queue), name);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+    }
+
+    private static final class PendingCommand {
+        private final TransferCommand command;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private long sequence;
+
+        private PendingCommand(TransferCommand command) {
+            this.command = command;
+        }
     }
 }
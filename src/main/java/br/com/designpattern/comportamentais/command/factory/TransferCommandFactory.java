@@ -0,0 +1,38 @@
+package br.com.designpattern.comportamentais.command.factory;
+
+import br.com.designpattern.comportamentais.command.command.BalanceTransferCommand;
+import br.com.designpattern.comportamentais.command.command.CreditTransferCommand;
+import br.com.designpattern.comportamentais.command.command.TransferCommand;
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+import br.com.designpattern.comportamentais.command.service.TransferService;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+@Component
+public class TransferCommandFactory {
+
+    // Construtores resolvidos uma única vez; cada item só faz um lookup no mapa
+    private static final Map<String, BiFunction<TransferService, TransferRequest, TransferCommand>> COMMANDS = Map.of(
+            "BALANCE", BalanceTransferCommand::new,
+            "CREDIT", CreditTransferCommand::new
+    );
+
+    private final TransferService transferService;
+
+    public TransferCommandFactory(TransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    // Retorna null quando o tipo de transferência é inválido
+    public TransferCommand create(TransferRequest request) {
+        if (request.getType() == null) {
+            return null;
+        }
+        BiFunction<TransferService, TransferRequest, TransferCommand> constructor =
+                COMMANDS.get(request.getType().toUpperCase(Locale.ROOT));
+        return constructor != null ? constructor.apply(transferService, request) : null;
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.designpattern.comportamentais.command.idempotency;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Cache de idempotência: a mesma chave enviada pelo cliente executa o comando uma única vez.
+// Duplicatas recebem o future da execução original, mesmo que ela ainda esteja em andamento.
+// Cada chave guarda um hash da requisição: a mesma chave com outro conteúdo é rejeitada, não devolve o resultado anterior.
+// Entradas em andamento nunca são removidas, nem por TTL nem por tamanho: uma duplicata executaria de novo.
+@Component
+public class IdempotencyCache {
+
+    private static final int MAX_ENTRIES = 100_000;
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(10);
+    // Entradas em andamento encontradas no início da fila voltam para o fim; limite por chamada
+    private static final int MAX_REQUEUES = 64;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Como o TTL é fixo, a ordem de inserção também é a ordem de expiração
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CompletableFuture<Void> execute(String key, long requestHash, Supplier<CompletableFuture<Void>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            // Caminho de hit: apenas um get no ConcurrentHashMap, sem lock e sem alocação
+            Entry existing = entries.get(key);
+            if (existing != null && existing.isLive(now)) {
+                if (existing.requestHash != requestHash) {
+                    throw new IdempotencyConflictException(key);
+                }
+                hits.increment();
+                return existing.future;
+            }
+
+            Entry fresh = new Entry(key, requestHash, now + TTL_NANOS);
+            boolean owner = existing == null
+                    ? entries.putIfAbsent(key, fresh) == null
+                    : entries.replace(key, existing, fresh);
+            if (owner) {
+                misses.increment();
+                insertionOrder.add(fresh);
+                evictExpiredAndOverflow(now);
+                return run(fresh, action);
+            }
+            // Outra thread registrou a chave ao mesmo tempo: tenta de novo e cai no caminho de hit
+        }
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("size", (long) entries.size());
+        return stats;
+    }
+
+    private CompletableFuture<Void> run(Entry entry, Supplier<CompletableFuture<Void>> action) {
+        CompletableFuture<Void> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            // Falhas (ex.: fila cheia) não ficam no cache, para que o retry do cliente execute de novo
+            entries.remove(entry.key, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+
+        result.whenComplete((ignored, error) -> {
+            if (error != null) {
+                entries.remove(entry.key, entry);
+                entry.future.completeExceptionally(error);
+            } else {
+                entry.future.complete(null);
+            }
+        });
+        return entry.future;
+    }
+
+    private void evictExpiredAndOverflow(long now) {
+        Entry oldest;
+        int requeues = 0;
+        while ((oldest = insertionOrder.peek()) != null
+                && (oldest.isExpired(now) || entries.size() > MAX_ENTRIES)) {
+            if (!insertionOrder.remove(oldest)) {
+                continue;
+            }
+            if (!oldest.future.isDone() && entries.get(oldest.key) == oldest) {
+                // Ainda em andamento: vai para o fim da fila e será avaliada de novo mais tarde
+                insertionOrder.add(oldest);
+                if (++requeues >= MAX_REQUEUES) {
+                    return;
+                }
+            } else if (entries.remove(oldest.key, oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final long requestHash;
+        private final long expiresAt;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Entry(String key, long requestHash, long expiresAt) {
+            this.key = key;
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+
+        // Uma execução em andamento continua valendo mesmo depois do TTL
+        private boolean isLive(long now) {
+            return !isExpired(now) || !future.isDone();
+        }
+    }
+}
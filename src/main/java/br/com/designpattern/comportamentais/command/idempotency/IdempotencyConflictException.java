@@ -0,0 +1,9 @@
+package br.com.designpattern.comportamentais.command.idempotency;
+
+// A Idempotency-Key já foi usada com uma requisição diferente
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String key) {
+        super("Idempotency-Key já usada com outra requisição: " + key);
+    }
+}
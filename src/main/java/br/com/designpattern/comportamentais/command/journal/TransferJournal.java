@@ -0,0 +1,385 @@
+package br.com.designpattern.comportamentais.command.journal;
+
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+import br.com.designpattern.comportamentais.shared.RecordCodec;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+// Journal append-only (write-ahead log) dos comandos de transferência, em arquivo mapeado em memória.
+//
+// Registros no formato do RecordCodec ([int tamanho][int crc32][payload]):
+//   COMMAND: [byte tipo][long seq][byte tipoTransferência][short+bytes contaOrigem][short+bytes contaDestino][double valor]
+//   DONE:    [byte tipo][long seq]
+// Tamanho 0 marca o fim do log e -1 marca o preenchimento até o fim da região mapeada.
+// Quando a região atual enche, o journal é compactado: só os comandos ainda sem DONE são copiados para um arquivo
+// novo, que substitui o atual. Um DONE com a última sequência usada mantém a numeração crescente após reinícios.
+@Component
+public class TransferJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferJournal.class);
+
+    private static final int REGION_SIZE = 64 * 1024 * 1024;
+    private static final int HEADER_SIZE = RecordCodec.HEADER_SIZE;
+    private static final int MAX_ACCOUNT_BYTES = 1024;
+    private static final int MAX_RECORD_SIZE = 64 + 2 * MAX_ACCOUNT_BYTES;
+    private static final int PADDING = -1;
+
+    private static final byte COMMAND = 1;
+    private static final byte DONE = 2;
+    private static final String[] TRANSFER_TYPES = {"BALANCE", "CREDIT"};
+
+    private final Path path;
+    private FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingFlush = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final CRC32 scanCrc = new CRC32();
+    private final Thread flusher;
+
+    private MappedByteBuffer region;
+    private long regionBase;
+    private int regionPosition;
+    private long nextSequence = 1;
+    // Bytes gravados e bytes já em disco desde a abertura; só crescem, mesmo quando a compactação troca o arquivo
+    private long written;
+    private long durable;
+    private boolean closed;
+    // Falha de fsync: o journal para de aceitar registros e quem espera o sync recebe a exceção
+    private IOException failure;
+
+    @Autowired
+    public TransferJournal(@Value("${command.journal.path:${java.io.tmpdir}/designpattern/transfer-journal.bin}") String file) {
+        this(Path.of(file));
+    }
+
+    public TransferJournal(Path path) {
+        this.path = path;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            openAtEnd();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o journal de transferências: " + path, e);
+        }
+
+        this.flusher = new Thread(this::flushLoop, "transfer-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // Grava o comando no journal (ainda não durável) e devolve o seu número de sequência
+    public long append(TransferRequest request) {
+        byte[] from = RecordCodec.utf8(request.getAccountFrom(), MAX_ACCOUNT_BYTES);
+        byte[] to = RecordCodec.utf8(request.getAccountTo(), MAX_ACCOUNT_BYTES);
+        byte type = typeCode(request.getType());
+        lock.lock();
+        try {
+            long sequence = nextSequence++;
+            scratch.clear();
+            scratch.put(COMMAND).putLong(sequence).put(type);
+            RecordCodec.putField(scratch, from);
+            RecordCodec.putField(scratch, to);
+            scratch.putDouble(request.getAmount() != null ? request.getAmount() : Double.NaN);
+            writeRecord();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Registra que o comando foi executado. Não espera o fsync: se o marcador se perder, o comando volta como pendente
+    public void markDone(long sequence) {
+        lock.lock();
+        try {
+            scratch.clear();
+            scratch.put(DONE).putLong(sequence);
+            writeRecord();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Group commit: espera até que tudo que foi gravado antes desta chamada esteja em disco.
+    // Vários chamadores concorrentes são atendidos pelo mesmo fsync.
+    public void sync() {
+        lock.lock();
+        try {
+            long target = written;
+            pendingFlush.signal();
+            while (durable < target && !closed && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durable < target && failure != null) {
+                throw new UncheckedIOException("fsync do journal de transferências falhou", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Entrega os comandos gravados que não têm marcador DONE, na ordem do journal.
+    // Os pendentes são coletados antes de chamar o consumer, que pode gravar novos registros no journal.
+    public void replayPending(BiConsumer<Long, TransferRequest> consumer) {
+        Map<Long, TransferRequest> pending = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            // O DONE vem sempre depois do COMMAND, então o mapa só guarda os comandos ainda em aberto
+            scan((buffer, offset, length, kind, sequence) -> {
+                if (kind == COMMAND) {
+                    pending.put(sequence, decodeCommand(buffer, offset));
+                } else if (kind == DONE) {
+                    pending.remove(sequence);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+
+        pending.forEach(consumer);
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            pendingFlush.signal();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+            region.force();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeRecord() {
+        if (closed) {
+            throw new IllegalStateException("Journal de transferências encerrado");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal de transferências indisponível após falha de fsync", failure);
+        }
+        int length = scratch.position();
+        if (regionPosition + HEADER_SIZE + length > REGION_SIZE) {
+            compact();
+        }
+        if (regionPosition + HEADER_SIZE + length > REGION_SIZE) {
+            nextRegion();
+        }
+
+        int size = RecordCodec.write(region, regionPosition, scratch.flip(), crc);
+        regionPosition += size;
+        written += size;
+    }
+
+    // Copia os comandos sem DONE para um arquivo novo (com fsync) e o move sobre o atual.
+    // Chamado com o lock: os comandos em execução nas outras threads estão entre os copiados
+    // e os seus DONE passam a ser gravados no arquivo novo.
+    private void compact() {
+        Map<Long, byte[]> pending = new LinkedHashMap<>();
+        scan((buffer, offset, length, kind, sequence) -> {
+            if (kind == COMMAND) {
+                byte[] payload = new byte[length];
+                buffer.get(offset, payload);
+                pending.put(sequence, payload);
+            } else if (kind == DONE) {
+                pending.remove(sequence);
+            }
+        });
+
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (byte[] payload : pending.values()) {
+                writeTo(target, ByteBuffer.wrap(payload));
+            }
+            writeTo(target, ByteBuffer.allocate(9).put(DONE).putLong(nextSequence - 1).flip());
+            target.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            regionBase = 0;
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionBase, REGION_SIZE);
+            regionPosition = endOf(region);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Tudo que ainda importa está no arquivo novo, já sincronizado
+        durable = written;
+        flushed.signalAll();
+        log.debug("Journal compactado, {} comandos pendentes mantidos", pending.size());
+    }
+
+    private void writeTo(FileChannel target, ByteBuffer payload) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.remaining());
+        record.position(HEADER_SIZE);
+        record.put(payload);
+        RecordCodec.seal(record, crc);
+        while (record.hasRemaining()) {
+            target.write(record);
+        }
+    }
+
+    private void nextRegion() {
+        if (REGION_SIZE - regionPosition >= 4) {
+            region.putInt(regionPosition, PADDING);
+        }
+        // A região anterior vai para o disco antes de a nova se tornar a atual
+        region.force();
+        try {
+            regionBase += REGION_SIZE;
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionBase, REGION_SIZE);
+            regionPosition = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer toFlush;
+            long target;
+            lock.lock();
+            try {
+                while (written == durable && !closed) {
+                    pendingFlush.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                toFlush = region;
+                target = written;
+            } finally {
+                lock.unlock();
+            }
+
+            // fsync fora do lock: novos registros continuam sendo gravados enquanto o disco trabalha
+            try {
+                toFlush.force();
+            } catch (UncheckedIOException e) {
+                lock.lock();
+                try {
+                    failure = e.getCause();
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                log.warn("Falha no fsync do journal de transferências; novas escritas serão recusadas", e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                durable = Math.max(durable, target);
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void openAtEnd() throws IOException {
+        long size = channel.size();
+        long regions = Math.max(1, (size + REGION_SIZE - 1) / REGION_SIZE);
+        regionBase = (regions - 1) * REGION_SIZE;
+
+        scan((buffer, offset, length, kind, sequence) -> nextSequence = Math.max(nextSequence, sequence + 1));
+
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionBase, REGION_SIZE);
+        regionPosition = endOf(region);
+    }
+
+    // Percorre todos os registros válidos do arquivo, região por região
+    private void scan(RecordVisitor visitor) {
+        try {
+            long size = channel.size();
+            for (long base = 0; base < size; base += REGION_SIZE) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(REGION_SIZE, size - base));
+                int offset = 0;
+                while (true) {
+                    int length = RecordCodec.validLength(buffer, offset, scanCrc);
+                    if (length <= 0) {
+                        break;
+                    }
+                    int payload = offset + HEADER_SIZE;
+                    visitor.visit(buffer, payload, length, buffer.get(payload), buffer.getLong(payload + 1));
+                    offset = payload + length;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int endOf(ByteBuffer buffer) {
+        int offset = 0;
+        int length;
+        while ((length = RecordCodec.validLength(buffer, offset, scanCrc)) > 0) {
+            offset += HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private TransferRequest decodeCommand(ByteBuffer buffer, int offset) {
+        int position = offset + 9;
+        String type = TRANSFER_TYPES[buffer.get(position++)];
+        String from = RecordCodec.getField(buffer, position);
+        position = RecordCodec.skipField(buffer, position);
+        String to = RecordCodec.getField(buffer, position);
+        position = RecordCodec.skipField(buffer, position);
+        double amount = buffer.getDouble(position);
+        return new TransferRequest(type, from, to, Double.isNaN(amount) ? null : amount);
+    }
+
+    private static byte typeCode(String type) {
+        String normalized = type == null ? "" : type.toUpperCase(Locale.ROOT);
+        for (byte i = 0; i < TRANSFER_TYPES.length; i++) {
+            if (TRANSFER_TYPES[i].equals(normalized)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de transferência inválido: " + type);
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(ByteBuffer buffer, int payloadOffset, int length, byte kind, long sequence);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.designpattern.comportamentais.command.journal;
+
+import br.com.designpattern.comportamentais.command.command.TransferCommand;
+import br.com.designpattern.comportamentais.command.executor.TransferExecutor;
+import br.com.designpattern.comportamentais.command.factory.TransferCommandFactory;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Na inicialização, reexecuta os comandos que entraram no journal mas não chegaram a ser concluídos.
+// Os marcadores DONE vão para o disco com um fsync por lote, não um por comando.
+@Component
+public class TransferJournalRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferJournalRecovery.class);
+    private static final int SYNC_EVERY = 4096;
+
+    private final TransferJournal journal;
+    private final TransferCommandFactory commandFactory;
+    private final TransferExecutor transferExecutor;
+
+    public TransferJournalRecovery(TransferJournal journal,
+                                   TransferCommandFactory commandFactory,
+                                   TransferExecutor transferExecutor) {
+        this.journal = journal;
+        this.commandFactory = commandFactory;
+        this.transferExecutor = transferExecutor;
+    }
+
+    @PostConstruct
+    public void recover() {
+        long start = System.nanoTime();
+        int[] replayed = {0};
+        journal.replayPending((sequence, request) -> {
+            TransferCommand command = commandFactory.create(request);
+            transferExecutor.replayCommand(command, sequence);
+            if (++replayed[0] % SYNC_EVERY == 0) {
+                journal.sync();
+            }
+        });
+        journal.sync();
+        log.info("{} comandos pendentes do journal reexecutados em {} ms",
+                replayed[0], (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -54,6 +54,16 @@ public class TransferRequest {
         this.amount = amount;
     }
 
+    // Hash de 64 bits do conteúdo, usado para detectar uma Idempotency-Key reutilizada com outra requisição
+    public long fingerprint() {
+        String content = type + '\u0000' + accountFrom + '\u0000' + accountTo + '\u0000' + amount;
+        long hash = 1125899906842597L;
+        for (int i = 0; i < content.length(); i++) {
+            hash = 31 * hash + content.charAt(i);
+        }
+        return hash;
+    }
+
     @Override
     public String toString() {
         return "TransferRequest{" +
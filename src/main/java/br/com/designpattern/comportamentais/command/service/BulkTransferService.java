@@ -0,0 +1,139 @@
+package br.com.designpattern.comportamentais.command.service;
+
+import br.com.designpattern.comportamentais.command.command.TransferCommand;
+import br.com.designpattern.comportamentais.command.executor.TransferExecutor;
+import br.com.designpattern.comportamentais.command.factory.TransferCommandFactory;
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+@Service
+public class BulkTransferService {
+
+    private static final int MAX_IN_FLIGHT = 256;
+    private static final int FLUSH_EVERY = 64;
+
+    private final TransferCommandFactory commandFactory;
+    private final TransferExecutor transferExecutor;
+    private final ObjectMapper objectMapper;
+
+    public BulkTransferService(TransferCommandFactory commandFactory,
+                               TransferExecutor transferExecutor,
+                               ObjectMapper objectMapper) {
+        this.commandFactory = commandFactory;
+        this.transferExecutor = transferExecutor;
+        this.objectMapper = objectMapper;
+    }
+
+    // Lê as transferências (NDJSON ou array JSON) item a item, executa em pipeline e escreve um resultado NDJSON por item.
+    // No máximo MAX_IN_FLIGHT itens ficam em memória, independentemente do tamanho do lote.
+    public void execute(InputStream input, OutputStream output) throws IOException {
+        try (MappingIterator<TransferRequest> requests = objectMapper.readerFor(TransferRequest.class).readValues(input);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null); // cada resultado termina com '\n' (NDJSON)
+            Pipeline pipeline = new Pipeline(generator);
+            try {
+                while (requests.hasNextValue()) {
+                    pipeline.add(submit(requests.nextValue(), pipeline));
+                }
+                pipeline.drain();
+            } catch (JsonProcessingException e) {
+                // Conteúdo inválido interrompe o lote; os itens já aceitos ainda têm o resultado reportado
+                pipeline.drain();
+                pipeline.writeError("JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private CompletableFuture<Void> submit(TransferRequest request, Pipeline pipeline) throws IOException {
+        if (request == null) {
+            // Um item null no array vira erro só desse item, sem interromper o lote
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Transferência nula"));
+        }
+        TransferCommand command = commandFactory.create(request);
+        if (command == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Tipo de transferência inválido"));
+        }
+
+        while (true) {
+            try {
+                return transferExecutor.submitCommand(command);
+            } catch (RejectedExecutionException e) {
+                // Backpressure do executor: escreve o resultado mais antigo para abrir espaço antes de tentar de novo
+                if (!pipeline.writeOldest()) {
+                    LockSupport.parkNanos(100_000);
+                }
+            }
+        }
+    }
+
+    private static final class Pipeline {
+        private final Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>(MAX_IN_FLIGHT);
+        private final JsonGenerator generator;
+        private long nextIndex;
+
+        private Pipeline(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        private void add(CompletableFuture<Void> future) throws IOException {
+            if (inFlight.size() == MAX_IN_FLIGHT) {
+                writeOldest();
+            }
+            inFlight.addLast(future);
+        }
+
+        private boolean writeOldest() throws IOException {
+            CompletableFuture<Void> oldest = inFlight.pollFirst();
+            if (oldest == null) {
+                return false;
+            }
+            try {
+                oldest.join();
+                writeResult("OK", null);
+            } catch (CompletionException e) {
+                writeResult("ERROR", e.getCause().getMessage());
+            }
+            return true;
+        }
+
+        private void drain() throws IOException {
+            while (writeOldest()) {
+                // escreve os resultados restantes na ordem de entrada
+            }
+            generator.flush();
+        }
+
+        private void writeError(String message) throws IOException {
+            writeResult("ERROR", message);
+            generator.flush();
+        }
+
+        private void writeResult(String status, String message) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("index", nextIndex++);
+            generator.writeStringField("status", status);
+            if (message != null) {
+                generator.writeStringField("message", message);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (nextIndex % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        }
+    }
+}
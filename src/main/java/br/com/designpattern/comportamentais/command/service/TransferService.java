@@ -1,17 +1,23 @@
 package br.com.designpattern.comportamentais.command.service;
 
 import br.com.designpattern.comportamentais.command.model.TransferRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TransferService {
+
+    // Em debug: no caminho de cada transferência, o log não pode custar nada quando desligado
+    private static final Logger log = LoggerFactory.getLogger(TransferService.class);
+
     public void transferUsingBalance(TransferRequest request) {
-        System.out.println("Transferência via saldo: " + request);
+        log.debug("Transferência via saldo: {}", request);
         // Lógica de transferência via saldo
     }
 
     public void transferUsingCredit(TransferRequest request) {
-        System.out.println("Transferência via crédito: " + request);
+        log.debug("Transferência via crédito: {}", request);
         // Lógica de transferência via crédito
     }
 }
@@ -1,11 +1,18 @@
 package br.com.designpattern.comportamentais.iterator.controller;
 
-import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.model.ProductPage;
 import br.com.designpattern.comportamentais.iterator.service.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 public class ProductController {
@@ -16,8 +23,39 @@ public class ProductController {
         this.productService = productService;
     }
 
-    @GetMapping("/iterator/products")
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    // A lista de produtos é escrita diretamente na resposta, página por página
+    @GetMapping(value = "/iterator/products", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getAllProducts(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try {
+            productService.writeAllProducts(response.getOutputStream());
+        } catch (RejectedExecutionException e) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+        }
+    }
+
+    // Paginação por cursor: GET /iterator/products?limit=100 e depois ?limit=100&cursor=<nextCursor>
+    @GetMapping(value = "/iterator/products", params = "limit")
+    public ResponseEntity<Object> getProductsPage(@RequestParam("limit") int limit,
+                                                  @RequestParam(value = "cursor", required = false) String cursor) {
+        try {
+            ProductPage page = productService.getProductsPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    // Cursores de partes disjuntas do catálogo; cada worker pagina a partir do seu cursor
+    @GetMapping("/iterator/products/cursors")
+    public ResponseEntity<Object> getCursors(@RequestParam(value = "parts", defaultValue = "4") int parts) {
+        try {
+            List<String> cursors = productService.splitCursors(parts);
+            return ResponseEntity.ok(cursors);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
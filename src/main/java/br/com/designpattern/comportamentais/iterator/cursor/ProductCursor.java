@@ -0,0 +1,109 @@
+package br.com.designpattern.comportamentais.iterator.cursor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+// Posição de leitura em cada fonte do catálogo: o próximo item a ler (start) e o limite exclusivo (end, -1 = até o fim).
+// É codificado em um texto opaco devolvido ao cliente, então o servidor não guarda estado por cliente.
+public class ProductCursor {
+    private static final String VERSION = "v1";
+    private static final long UNBOUNDED = -1;
+
+    private final long[] start;
+    private final long[] end;
+
+    private ProductCursor(long[] start, long[] end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    // Início de todas as fontes, sem limite
+    public static ProductCursor initial(int sources) {
+        long[] end = new long[sources];
+        Arrays.fill(end, UNBOUNDED);
+        return new ProductCursor(new long[sources], end);
+    }
+
+    // Divide as fontes em partes disjuntas, para que vários workers leiam o catálogo ao mesmo tempo.
+    // Uma fonte de tamanho desconhecido fica inteira na primeira parte.
+    public static List<ProductCursor> split(long[] counts, int parts) {
+        List<ProductCursor> cursors = new ArrayList<>(parts);
+        for (int part = 0; part < parts; part++) {
+            long[] start = new long[counts.length];
+            long[] end = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] < 0) {
+                    start[i] = 0;
+                    end[i] = part == 0 ? UNBOUNDED : 0;
+                } else {
+                    start[i] = counts[i] * part / parts;
+                    end[i] = counts[i] * (part + 1) / parts;
+                }
+            }
+            cursors.add(new ProductCursor(start, end));
+        }
+        return cursors;
+    }
+
+    public static ProductCursor decode(String encoded, int sources) {
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+
+        String[] fields = text.split(";");
+        if (fields.length != sources + 1 || !VERSION.equals(fields[0])) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        long[] start = new long[sources];
+        long[] end = new long[sources];
+        for (int i = 0; i < sources; i++) {
+            String[] range = fields[i + 1].split(":");
+            try {
+                start[i] = Long.parseLong(range[0]);
+                end[i] = Long.parseLong(range[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            if (start[i] < 0 || (end[i] != UNBOUNDED && end[i] < start[i])) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+        return new ProductCursor(start, end);
+    }
+
+    public String encode() {
+        StringBuilder text = new StringBuilder(VERSION);
+        for (int i = 0; i < start.length; i++) {
+            text.append(';').append(start[i]).append(':').append(end[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Novo cursor depois de ler "consumed[i]" itens de cada fonte
+    public ProductCursor advance(long[] consumed) {
+        long[] next = start.clone();
+        for (int i = 0; i < next.length; i++) {
+            next[i] += consumed[i];
+        }
+        return new ProductCursor(next, end);
+    }
+
+    public int sources() {
+        return start.length;
+    }
+
+    public long getStart(int source) {
+        return start[source];
+    }
+
+    // Quantos itens ainda podem ser lidos da fonte, ou -1 quando não há limite
+    public long remaining(int source) {
+        return end[source] == UNBOUNDED ? UNBOUNDED : end[source] - start[source];
+    }
+}
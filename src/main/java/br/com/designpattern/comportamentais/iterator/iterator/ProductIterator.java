@@ -5,4 +5,8 @@ import br.com.designpattern.comportamentais.iterator.model.Product;
 public interface ProductIterator {
     boolean hasNext();
     Product next();
+
+    // Libera o que a iteração ainda estiver usando (ex.: threads lendo as fontes) quando ela para antes do fim
+    default void close() {
+    }
 }
\ No newline at end of file
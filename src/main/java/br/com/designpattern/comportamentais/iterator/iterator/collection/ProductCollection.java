@@ -1,7 +1,60 @@
 package br.com.designpattern.comportamentais.iterator.iterator.collection;
 
 import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface ProductCollection {
     ProductIterator createIterator();
-}
\ No newline at end of file
+
+    // Iterador a partir do item startIndex; por padrão descarta os itens anteriores,
+    // coleções que conseguem posicionar direto na origem sobrescrevem
+    default ProductIterator createIterator(long startIndex) {
+        ProductIterator iterator = createIterator();
+        for (long i = 0; i < startIndex && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        return iterator;
+    }
+
+    // Total de produtos, ou -1 quando desconhecido
+    default long count() {
+        return -1;
+    }
+
+    // Por padrão adapta o ProductIterator, que só pode ser dividido em lotes sequenciais.
+    // Coleções que conhecem o tamanho dos dados sobrescrevem para dividir por faixas.
+    default Spliterator<Product> spliterator() {
+        ProductIterator iterator = createIterator();
+        return Spliterators.spliteratorUnknownSize(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Product next() {
+                Product product = iterator.next();
+                if (product == null) {
+                    throw new NoSuchElementException();
+                }
+                return product;
+            }
+        }, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    default Stream<Product> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    // Processa os produtos no ForkJoinPool comum
+    default Stream<Product> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+}
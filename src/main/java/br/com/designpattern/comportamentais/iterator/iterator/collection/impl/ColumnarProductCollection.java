@@ -0,0 +1,183 @@
+package br.com.designpattern.comportamentais.iterator.iterator.collection.impl;
+
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.collection.ProductCollection;
+import br.com.designpattern.comportamentais.iterator.iterator.impl.ColumnarProductIterator;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Spliterator;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+// Catálogo em colunas: ids e nomes ficam em um único byte[] por coluna (com um int[] de deslocamentos)
+// e os preços em um double[]. Não existe um objeto por produto; a iteração cria visões leves
+// que leem as colunas apenas quando um campo é acessado.
+public class ColumnarProductCollection implements ProductCollection {
+    private final int size;
+    private final byte[] idBytes;
+    private final int[] idOffsets;
+    private final BitSet nullIds;
+    private final byte[] nameBytes;
+    private final int[] nameOffsets;
+    private final BitSet nullNames;
+    private final double[] prices; // NaN representa preço ausente
+    private final boolean missingPrices;
+
+    // Construtor privado
+    private ColumnarProductCollection(Builder builder) {
+        this.size = builder.size;
+        this.idBytes = Arrays.copyOf(builder.ids.bytes, builder.ids.length);
+        this.idOffsets = Arrays.copyOf(builder.ids.offsets, size + 1);
+        this.nullIds = builder.ids.nulls;
+        this.nameBytes = Arrays.copyOf(builder.names.bytes, builder.names.length);
+        this.nameOffsets = Arrays.copyOf(builder.names.offsets, size + 1);
+        this.nullNames = builder.names.nulls;
+        this.prices = Arrays.copyOf(builder.prices, size);
+        this.missingPrices = builder.missingPrices;
+    }
+
+    @Override
+    public ProductIterator createIterator() {
+        return new ColumnarProductIterator(this);
+    }
+
+    @Override
+    public ProductIterator createIterator(long startIndex) {
+        return new ColumnarProductIterator(this, (int) Math.min(startIndex, size));
+    }
+
+    @Override
+    public long count() {
+        return size;
+    }
+
+    // Divisível por faixa de linhas, sem buscar nada além das próprias colunas
+    @Override
+    public Spliterator<Product> spliterator() {
+        return IntStream.range(0, size).mapToObj(this::productAt).spliterator();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Cria uma visão da linha; os campos são lidos das colunas sob demanda
+    public Product productAt(int row) {
+        return new ProductView(this, row);
+    }
+
+    public String idAt(int row) {
+        return nullIds.get(row) ? null : decode(idBytes, idOffsets, row);
+    }
+
+    public String nameAt(int row) {
+        return nullNames.get(row) ? null : decode(nameBytes, nameOffsets, row);
+    }
+
+    public Double priceAt(int row) {
+        double price = prices[row];
+        return Double.isNaN(price) ? null : price;
+    }
+
+    // Varredura direta da coluna de preços, sem visões nem boxing
+    public DoubleStream prices() {
+        DoubleStream column = Arrays.stream(prices);
+        return missingPrices ? column.filter(price -> !Double.isNaN(price)) : column;
+    }
+
+    private static String decode(byte[] bytes, int[] offsets, int row) {
+        int start = offsets[row];
+        return new String(bytes, start, offsets[row + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    // Visão leve (flyweight) de uma linha: só guarda a referência às colunas e o número da linha
+    private static final class ProductView extends Product {
+        private final ColumnarProductCollection columns;
+        private final int row;
+
+        private ProductView(ColumnarProductCollection columns, int row) {
+            super(null, null, null);
+            this.columns = columns;
+            this.row = row;
+        }
+
+        @Override
+        public String getId() {
+            return columns.idAt(row);
+        }
+
+        @Override
+        public String getName() {
+            return columns.nameAt(row);
+        }
+
+        @Override
+        public Double getPrice() {
+            return columns.priceAt(row);
+        }
+
+        @Override
+        public String toString() {
+            return "Product{id='" + getId() + "', name='" + getName() + "', price=" + getPrice() + "}";
+        }
+    }
+
+    // Classe Builder interna
+    public static class Builder {
+        private final StringColumn ids = new StringColumn();
+        private final StringColumn names = new StringColumn();
+        private double[] prices = new double[16];
+        private boolean missingPrices;
+        private int size;
+
+        public Builder add(String id, String name, Double price) {
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+            ids.add(id, size);
+            names.add(name, size);
+            missingPrices |= price == null;
+            prices[size++] = price == null ? Double.NaN : price;
+            return this;
+        }
+
+        public Builder add(Product product) {
+            return add(product.getId(), product.getName(), product.getPrice());
+        }
+
+        public ColumnarProductCollection build() {
+            return new ColumnarProductCollection(this);
+        }
+    }
+
+    // Strings de uma coluna concatenadas em UTF-8; offsets[i]..offsets[i + 1] delimita a linha i.
+    // Valores nulos ocupam zero bytes e ficam marcados no BitSet.
+    private static final class StringColumn {
+        private byte[] bytes = new byte[256];
+        private int length;
+        private int[] offsets = new int[17];
+        private final BitSet nulls = new BitSet();
+
+        private void add(String value, int row) {
+            if (row + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[row] = length;
+            if (value == null) {
+                nulls.set(row);
+                offsets[row + 1] = length;
+                return;
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            if (length + encoded.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + encoded.length));
+            }
+            System.arraycopy(encoded, 0, bytes, length, encoded.length);
+            length += encoded.length;
+            offsets[row + 1] = length;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.designpattern.comportamentais.iterator.iterator.collection.impl;
+
+import br.com.designpattern.comportamentais.iterator.cursor.ProductCursor;
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.collection.ProductCollection;
+import br.com.designpattern.comportamentais.iterator.iterator.impl.BoundedProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.impl.InterleavingProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.impl.SortedMergeProductIterator;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+// Une várias coleções em uma só, lendo todas as fontes ao mesmo tempo.
+// Com uma ordem definida faz merge k-way (cada fonte já deve estar ordenada); sem ordem, intercala por chegada.
+public class CompositeProductCollection implements ProductCollection {
+    private static final int BUFFER_SIZE = 256;
+
+    private final List<ProductCollection> collections;
+    private final Comparator<Product> order;
+    private final Duration sourceTimeout;
+    private final ExecutorService executor;
+
+    public CompositeProductCollection(List<ProductCollection> collections, Duration sourceTimeout, ExecutorService executor) {
+        this(collections, null, sourceTimeout, executor);
+    }
+
+    public CompositeProductCollection(List<ProductCollection> collections, Comparator<Product> order,
+                                      Duration sourceTimeout, ExecutorService executor) {
+        this.collections = collections;
+        this.order = order;
+        this.sourceTimeout = sourceTimeout;
+        this.executor = executor;
+    }
+
+    @Override
+    public ProductIterator createIterator() {
+        List<ProductIterator> iterators = new ArrayList<>(collections.size());
+        List<String> names = new ArrayList<>(collections.size());
+        for (ProductCollection collection : collections) {
+            iterators.add(collection.createIterator());
+            names.add(collection.getClass().getSimpleName());
+        }
+
+        if (order == null) {
+            return new InterleavingProductIterator(iterators, names, sourceTimeout, BUFFER_SIZE, executor);
+        }
+        return new SortedMergeProductIterator(iterators, names, order, sourceTimeout, BUFFER_SIZE, executor);
+    }
+
+    // Retoma o merge na posição do cursor, lendo no máximo "limit" + 1 produtos de cada fonte: o item a mais
+    // mostra se a fonte ainda tem produtos depois da página, mesmo quando ela sozinha preenche a página.
+    // Só é possível com uma ordem definida: a intercalação por chegada não é reproduzível.
+    public SortedMergeProductIterator createIterator(ProductCursor cursor, int limit) {
+        if (order == null) {
+            throw new IllegalStateException("Cursores exigem uma ordem definida");
+        }
+        List<ProductIterator> iterators = new ArrayList<>(collections.size());
+        List<String> names = new ArrayList<>(collections.size());
+        for (int i = 0; i < collections.size(); i++) {
+            ProductCollection collection = collections.get(i);
+            long remaining = cursor.remaining(i);
+            long bound = remaining < 0 ? limit + 1L : Math.min(limit + 1L, remaining);
+            iterators.add(new BoundedProductIterator(collection.createIterator(cursor.getStart(i)), bound));
+            names.add(collection.getClass().getSimpleName());
+        }
+        return new SortedMergeProductIterator(iterators, names, order, sourceTimeout,
+                Math.max(1, Math.min(limit + 1, BUFFER_SIZE)), executor);
+    }
+
+    public int sources() {
+        return collections.size();
+    }
+
+    public long[] sourceCounts() {
+        long[] counts = new long[collections.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = collections.get(i).count();
+        }
+        return counts;
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (long count : sourceCounts()) {
+            if (count < 0) {
+                return -1;
+            }
+            total += count;
+        }
+        return total;
+    }
+}
@@ -3,19 +3,47 @@ package br.com.designpattern.comportamentais.iterator.iterator.collection.impl;
 import br.com.designpattern.comportamentais.iterator.iterator.collection.ProductCollection;
 import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
 import br.com.designpattern.comportamentais.iterator.iterator.impl.DatabaseProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.impl.PagedProductSpliterator;
 import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.source.ProductPageSource;
 
-import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
 
 public class DatabaseProductCollection implements ProductCollection {
-    private List<Product> products;
+    private final ProductPageSource source;
+    private final int pageSize;
+    private final Executor prefetchExecutor;
 
-    public DatabaseProductCollection(List<Product> products) {
-        this.products = products;
+    public DatabaseProductCollection(ProductPageSource source, int pageSize, Executor prefetchExecutor) {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.prefetchExecutor = prefetchExecutor;
     }
 
     @Override
     public ProductIterator createIterator() {
-        return new DatabaseProductIterator(products);
+        return new DatabaseProductIterator(source, pageSize, prefetchExecutor);
     }
-}
\ No newline at end of file
+
+    // Começa direto na página do item, sem ler os anteriores
+    @Override
+    public ProductIterator createIterator(long startIndex) {
+        return new DatabaseProductIterator(source, pageSize, prefetchExecutor, startIndex);
+    }
+
+    @Override
+    public long count() {
+        return source.count();
+    }
+
+    // O banco divide por faixa de índices (OFFSET/LIMIT), alinhada às páginas
+    @Override
+    public Spliterator<Product> spliterator() {
+        long count = source.count();
+        if (count < 0) {
+            return ProductCollection.super.spliterator();
+        }
+        return new PagedProductSpliterator(source, pageSize, 0, count);
+    }
+}
@@ -3,19 +3,47 @@ package br.com.designpattern.comportamentais.iterator.iterator.collection.impl;
 import br.com.designpattern.comportamentais.iterator.iterator.collection.ProductCollection;
 import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
 import br.com.designpattern.comportamentais.iterator.iterator.impl.ExternalApiProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.impl.PagedProductSpliterator;
 import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.source.ProductPageSource;
 
-import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
 
 public class ExternalApiProductCollection implements ProductCollection {
-    private List<Product> products;
+    private final ProductPageSource source;
+    private final int pageSize;
+    private final Executor prefetchExecutor;
 
-    public ExternalApiProductCollection(List<Product> products) {
-        this.products = products;
+    public ExternalApiProductCollection(ProductPageSource source, int pageSize, Executor prefetchExecutor) {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.prefetchExecutor = prefetchExecutor;
     }
 
     @Override
     public ProductIterator createIterator() {
-        return new ExternalApiProductIterator(products.iterator());
+        return new ExternalApiProductIterator(source, pageSize, prefetchExecutor);
+    }
+
+    // Começa direto na página do item, sem ler os anteriores
+    @Override
+    public ProductIterator createIterator(long startIndex) {
+        return new ExternalApiProductIterator(source, pageSize, prefetchExecutor, startIndex);
+    }
+
+    @Override
+    public long count() {
+        return source.count();
+    }
+
+    // A API é dividida por páginas: cada parte consulta um intervalo de páginas
+    @Override
+    public Spliterator<Product> spliterator() {
+        long count = source.count();
+        if (count < 0) {
+            return ProductCollection.super.spliterator();
+        }
+        return new PagedProductSpliterator(source, pageSize, 0, count);
     }
 }
@@ -0,0 +1,29 @@
+package br.com.designpattern.comportamentais.iterator.iterator.impl;
+
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+// Entrega no máximo "limit" produtos do iterador original
+public class BoundedProductIterator implements ProductIterator {
+    private final ProductIterator iterator;
+    private long remaining;
+
+    public BoundedProductIterator(ProductIterator iterator, long limit) {
+        this.iterator = iterator;
+        this.remaining = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0 && iterator.hasNext();
+    }
+
+    @Override
+    public Product next() {
+        if (!hasNext()) {
+            return null;
+        }
+        remaining--;
+        return iterator.next();
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.designpattern.comportamentais.iterator.iterator.impl;
+
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.collection.impl.ColumnarProductCollection;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+public class ColumnarProductIterator implements ProductIterator {
+    private final ColumnarProductCollection collection;
+    private int row;
+
+    public ColumnarProductIterator(ColumnarProductCollection collection) {
+        this(collection, 0);
+    }
+
+    public ColumnarProductIterator(ColumnarProductCollection collection, int startRow) {
+        this.collection = collection;
+        this.row = startRow;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return row < collection.size();
+    }
+
+    @Override
+    public Product next() {
+        return hasNext() ? collection.productAt(row++) : null;
+    }
+}
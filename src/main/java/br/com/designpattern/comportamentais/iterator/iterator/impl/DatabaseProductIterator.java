@@ -1,25 +1,16 @@
 package br.com.designpattern.comportamentais.iterator.iterator.impl;
 
-import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
-import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.source.ProductPageSource;
 
-import java.util.List;
+import java.util.concurrent.Executor;
 
-public class DatabaseProductIterator implements ProductIterator {
-    private List<Product> products;
-    private int position = 0;
+public class DatabaseProductIterator extends PagedProductIterator {
 
-    public DatabaseProductIterator(List<Product> products) {
-        this.products = products;
+    public DatabaseProductIterator(ProductPageSource source, int pageSize, Executor executor) {
+        super(source, pageSize, executor);
     }
 
-    @Override
-    public boolean hasNext() {
-        return position < products.size();
+    public DatabaseProductIterator(ProductPageSource source, int pageSize, Executor executor, long startIndex) {
+        super(source, pageSize, executor, startIndex);
     }
-
-    @Override
-    public Product next() {
-        return hasNext() ? products.get(position++) : null;
-    }
-}
\ No newline at end of file
+}
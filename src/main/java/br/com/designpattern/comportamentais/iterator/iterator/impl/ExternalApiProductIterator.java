@@ -1,24 +1,16 @@
 package br.com.designpattern.comportamentais.iterator.iterator.impl;
 
-import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
-import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.source.ProductPageSource;
 
-import java.util.Iterator;
+import java.util.concurrent.Executor;
 
-public class ExternalApiProductIterator implements ProductIterator {
-    private Iterator<Product> iterator;
+public class ExternalApiProductIterator extends PagedProductIterator {
 
-    public ExternalApiProductIterator(Iterator<Product> iterator) {
-        this.iterator = iterator;
+    public ExternalApiProductIterator(ProductPageSource source, int pageSize, Executor executor) {
+        super(source, pageSize, executor);
     }
 
-    @Override
-    public boolean hasNext() {
-        return iterator.hasNext();
-    }
-
-    @Override
-    public Product next() {
-        return iterator.hasNext() ? iterator.next() : null;
+    public ExternalApiProductIterator(ProductPageSource source, int pageSize, Executor executor, long startIndex) {
+        super(source, pageSize, executor, startIndex);
     }
 }
@@ -0,0 +1,94 @@
+package br.com.designpattern.comportamentais.iterator.iterator.impl;
+
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Intercala as fontes na ordem de chegada: todas são lidas em paralelo em uma fila compartilhada.
+// Se nenhuma fonte entregar um produto dentro do timeout, as fontes restantes são descartadas.
+public class InterleavingProductIterator implements ProductIterator {
+    private final BlockingQueue<Object> queue;
+    private final List<SourceFeed> feeds = new ArrayList<>();
+    private final long timeoutNanos;
+    private final List<String> timedOutSources = new ArrayList<>();
+    private int finished = 0;
+    private Product nextProduct;
+
+    public InterleavingProductIterator(List<ProductIterator> sources, List<String> names,
+                                       Duration sourceTimeout, int bufferSize, ExecutorService executor) {
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.timeoutNanos = sourceTimeout.toNanos();
+        try {
+            for (int i = 0; i < sources.size(); i++) {
+                feeds.add(new SourceFeed(names.get(i), sources.get(i), queue, executor));
+            }
+        } catch (RejectedExecutionException e) {
+            // Pool de leitura cheio: as fontes que já começaram não teriam quem as consumisse
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (nextProduct == null && finished < feeds.size()) {
+            Object item;
+            try {
+                item = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                item = null;
+            }
+
+            if (item == null) {
+                abandonRemaining();
+            } else if (item == SourceFeed.END) {
+                finished++;
+            } else {
+                nextProduct = (Product) item;
+            }
+        }
+        return nextProduct != null;
+    }
+
+    @Override
+    public Product next() {
+        if (!hasNext()) {
+            return null;
+        }
+        Product product = nextProduct;
+        nextProduct = null;
+        return product;
+    }
+
+    @Override
+    public void close() {
+        for (SourceFeed feed : feeds) {
+            feed.cancel();
+        }
+    }
+
+    // Fontes que ainda não tinham terminado quando o timeout expirou
+    public List<String> getTimedOutSources() {
+        return timedOutSources;
+    }
+
+    private void abandonRemaining() {
+        for (SourceFeed feed : feeds) {
+            if (!feed.isDone()) {
+                feed.cancel();
+                timedOutSources.add(feed.getName());
+            }
+        }
+        System.out.println("Nenhuma fonte respondeu dentro do timeout; fontes descartadas da listagem: " + timedOutSources);
+        finished = feeds.size();
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.designpattern.comportamentais.iterator.iterator.impl;
+
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.source.ProductPageSource;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+// Iterador preguiçoso: busca uma página por vez e, enquanto a página atual é consumida,
+// já busca a próxima em segundo plano. No máximo duas páginas ficam em memória.
+public abstract class PagedProductIterator implements ProductIterator {
+    private final ProductPageSource source;
+    private final int pageSize;
+    private final Executor executor;
+
+    private List<Product> page = List.of();
+    private int position = 0;
+    private int nextPageNumber;
+    private int skipInFirstPage;
+    private boolean lastPage = false;
+    private CompletableFuture<List<Product>> nextPage;
+
+    protected PagedProductIterator(ProductPageSource source, int pageSize, Executor executor) {
+        this(source, pageSize, executor, 0);
+    }
+
+    // Começa no item startIndex: a primeira página buscada é a que contém esse item
+    protected PagedProductIterator(ProductPageSource source, int pageSize, Executor executor, long startIndex) {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.executor = executor;
+        this.nextPageNumber = (int) (startIndex / pageSize);
+        this.skipInFirstPage = (int) (startIndex % pageSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position < page.size()) {
+            return true;
+        }
+        if (lastPage) {
+            return false;
+        }
+
+        // A primeira página é buscada sob demanda; as demais normalmente já foram pré-carregadas
+        page = nextPage != null ? await(nextPage) : source.fetchPage(nextPageNumber, pageSize);
+        position = skipInFirstPage;
+        skipInFirstPage = 0;
+        nextPageNumber++;
+        lastPage = page.size() < pageSize;
+        nextPage = lastPage ? null : prefetch(nextPageNumber);
+        return position < page.size();
+    }
+
+    @Override
+    public Product next() {
+        return hasNext() ? page.get(position++) : null;
+    }
+
+    private CompletableFuture<List<Product>> prefetch(int pageNumber) {
+        return CompletableFuture.supplyAsync(() -> source.fetchPage(pageNumber, pageSize), executor);
+    }
+
+    private static List<Product> await(CompletableFuture<List<Product>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.designpattern.comportamentais.iterator.iterator.impl;
+
+import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.source.ProductPageSource;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Spliterator sobre a faixa de itens [index, end) de uma origem paginada.
+// A divisão acontece sempre no limite de uma página, para que cada página seja buscada por uma única parte.
+public class PagedProductSpliterator implements Spliterator<Product> {
+    private final ProductPageSource source;
+    private final int pageSize;
+    private long index;
+    private final long end;
+
+    private List<Product> page = List.of();
+    private long loadedPage = -1;
+
+    public PagedProductSpliterator(ProductPageSource source, int pageSize, long index, long end) {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.index = index;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Product> action) {
+        if (index >= end) {
+            return false;
+        }
+        long pageNumber = index / pageSize;
+        if (pageNumber != loadedPage) {
+            page = source.fetchPage((int) pageNumber, pageSize);
+            loadedPage = pageNumber;
+        }
+        int offset = (int) (index % pageSize);
+        if (offset >= page.size()) {
+            // A origem tem menos itens do que informou em count()
+            index = end;
+            return false;
+        }
+        index++;
+        action.accept(page.get(offset));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Product> action) {
+        while (index < end) {
+            long pageNumber = index / pageSize;
+            List<Product> current = pageNumber == loadedPage ? page : source.fetchPage((int) pageNumber, pageSize);
+            int from = (int) (index % pageSize);
+            int to = (int) Math.min(current.size(), end - pageNumber * pageSize);
+            for (int i = from; i < to; i++) {
+                action.accept(current.get(i));
+            }
+            index = to < pageSize ? end : (pageNumber + 1) * pageSize;
+        }
+        page = List.of();
+    }
+
+    @Override
+    public Spliterator<Product> trySplit() {
+        long mid = ((index + end) >>> 1) / pageSize * pageSize;
+        if (mid <= index || mid >= end) {
+            return null; // Menos de uma página inteira para dividir
+        }
+        Spliterator<Product> prefix = new PagedProductSpliterator(source, pageSize, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | SIZED | SUBSIZED | IMMUTABLE;
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.designpattern.comportamentais.iterator.iterator.impl;
+
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Merge k-way: todas as fontes são lidas em paralelo e o menor produto entre as cabeças é entregue primeiro.
+// Cada fonte deve estar ordenada pela mesma chave. Uma fonte que demora mais que o timeout para entregar
+// o próximo produto é descartada e a listagem continua com as demais.
+public class SortedMergeProductIterator implements ProductIterator {
+    private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+    private final List<SourceFeed> feeds = new ArrayList<>();
+    private final PriorityQueue<Head> heads;
+    private final long timeoutNanos;
+    private final List<String> timedOutSources = new ArrayList<>();
+    private final long[] consumed;
+    private boolean started = false;
+
+    public SortedMergeProductIterator(List<ProductIterator> sources, List<String> names, Comparator<Product> order,
+                                      Duration sourceTimeout, int bufferSize, ExecutorService executor) {
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.product, b.product));
+        this.timeoutNanos = sourceTimeout.toNanos();
+        this.consumed = new long[sources.size()];
+        try {
+            for (int i = 0; i < sources.size(); i++) {
+                BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+                queues.add(queue);
+                feeds.add(new SourceFeed(names.get(i), sources.get(i), queue, executor));
+            }
+        } catch (RejectedExecutionException e) {
+            // Pool de leitura cheio: as fontes que já começaram não teriam quem as consumisse
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!started) {
+            started = true;
+            for (int i = 0; i < feeds.size(); i++) {
+                advance(i);
+            }
+        }
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public Product next() {
+        if (!hasNext()) {
+            return null;
+        }
+        Head head = heads.poll();
+        consumed[head.source]++;
+        advance(head.source);
+        return head.product;
+    }
+
+    // Cancela a leitura de todas as fontes: sem isso, uma fonte com a fila cheia segura a thread até o abandono
+    @Override
+    public void close() {
+        for (SourceFeed feed : feeds) {
+            feed.cancel();
+        }
+    }
+
+    // Fontes descartadas por timeout nesta iteração
+    public List<String> getTimedOutSources() {
+        return timedOutSources;
+    }
+
+    // Quantos produtos de cada fonte já foram entregues; usado para montar o cursor da próxima página
+    public long[] getConsumed() {
+        return consumed.clone();
+    }
+
+    private void advance(int source) {
+        Object item;
+        try {
+            item = queues.get(source).poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            item = null;
+        }
+
+        if (item == null) {
+            SourceFeed feed = feeds.get(source);
+            feed.cancel();
+            timedOutSources.add(feed.getName());
+            System.out.println("Fonte " + feed.getName() + " excedeu o timeout e foi descartada da listagem");
+        } else if (item != SourceFeed.END) {
+            heads.add(new Head((Product) item, source));
+        }
+    }
+
+    private static final class Head {
+        private final Product product;
+        private final int source;
+
+        private Head(Product product, int source) {
+            this.product = product;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.designpattern.comportamentais.iterator.iterator.impl;
+
+import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Lê uma fonte em uma thread própria e entrega os produtos em uma fila limitada.
+// Ao final (ou em caso de erro na fonte) entrega o marcador END.
+final class SourceFeed {
+    static final Object END = new Object();
+
+    // Se o consumidor parar de ler (ex.: cliente desconectou), a thread desiste depois deste tempo
+    private static final long ABANDON_SECONDS = 30;
+
+    private final String name;
+    private final Future<?> producer;
+    private volatile boolean done = false;
+    private volatile boolean cancelled = false;
+
+    SourceFeed(String name, ProductIterator iterator, BlockingQueue<Object> queue, ExecutorService executor) {
+        this.name = name;
+        this.producer = executor.submit(() -> produce(iterator, queue));
+    }
+
+    String getName() {
+        return name;
+    }
+
+    // Verdadeiro quando a fonte já entregou todos os produtos
+    boolean isDone() {
+        return done;
+    }
+
+    void cancel() {
+        cancelled = true;
+        producer.cancel(true);
+    }
+
+    private void produce(ProductIterator iterator, BlockingQueue<Object> queue) {
+        try {
+            try {
+                while (iterator.hasNext()) {
+                    if (!queue.offer(iterator.next(), ABANDON_SECONDS, TimeUnit.SECONDS)) {
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (cancelled) {
+                    return;
+                }
+                // Uma fonte com erro é tratada como encerrada, sem derrubar a listagem inteira
+                System.out.println("Falha ao ler a fonte " + name + ": " + e.getMessage());
+            }
+            done = true;
+            queue.offer(END, ABANDON_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
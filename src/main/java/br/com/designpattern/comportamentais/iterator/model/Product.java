@@ -12,4 +12,20 @@ public class Product {
         this.price = price;
     }
     // Getters e toString
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    @Override
+    public String toString() {
+        return "Product{id='" + id + "', name='" + name + "', price=" + price + "}";
+    }
 }
@@ -0,0 +1,27 @@
+package br.com.designpattern.comportamentais.iterator.model;
+
+import java.util.List;
+
+public class ProductPage {
+    private final List<Product> products;
+    private final String nextCursor; // null quando não há mais produtos
+    private final List<String> timedOutSources;
+
+    public ProductPage(List<Product> products, String nextCursor, List<String> timedOutSources) {
+        this.products = products;
+        this.nextCursor = nextCursor;
+        this.timedOutSources = timedOutSources;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public List<String> getTimedOutSources() {
+        return timedOutSources;
+    }
+}
@@ -1,47 +1,171 @@
 package br.com.designpattern.comportamentais.iterator.service;
 
 
+import br.com.designpattern.comportamentais.iterator.cursor.ProductCursor;
+import br.com.designpattern.comportamentais.iterator.iterator.collection.impl.CompositeProductCollection;
 import br.com.designpattern.comportamentais.iterator.iterator.collection.impl.DatabaseProductCollection;
 import br.com.designpattern.comportamentais.iterator.iterator.collection.impl.ExternalApiProductCollection;
 import br.com.designpattern.comportamentais.iterator.iterator.collection.ProductCollection;
 import br.com.designpattern.comportamentais.iterator.iterator.ProductIterator;
+import br.com.designpattern.comportamentais.iterator.iterator.impl.SortedMergeProductIterator;
 import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.model.ProductPage;
+import br.com.designpattern.comportamentais.iterator.source.InMemoryProductPageSource;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ProductService {
 
-    public List<Product> getAllProducts() {
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_LIMIT = 1_000;
+    private static final int MAX_PARTS = 64;
+    private static final Duration SOURCE_TIMEOUT = Duration.ofSeconds(2);
+    private static final int FEED_THREADS = 64;
+    private static final int PREFETCH_THREADS = 32;
+
+    // Leitura das fontes (uma tarefa por fonte e por requisição, que pode esperar o consumidor por até 30 s).
+    // Com o pool e a fila cheios a requisição é rejeitada: rodar a leitura na thread da requisição a travaria.
+    private final ExecutorService feedExecutor;
+    // Busca das próximas páginas em segundo plano. Separado das leituras, para que uma leitura nunca espere
+    // por uma busca presa atrás de outras leituras; cheio, a busca roda na thread que a pediu.
+    private final ExecutorService prefetchExecutor;
+    private final ObjectMapper objectMapper;
+    private final CompositeProductCollection catalog;
+
+    @Autowired
+    public ProductService(ObjectMapper objectMapper,
+                          @Value("${iterator.feed.threads:64}") int feedThreads,
+                          @Value("${iterator.prefetch.threads:32}") int prefetchThreads) {
         // Simula produtos de diferentes fontes
-        List<Product> databaseProducts = Arrays.asList(
-                new Product("1", "Laptop", 2000.0),
-                new Product("2", "Mouse", 50.0)
-        );
+        this(objectMapper, feedThreads, prefetchThreads,
+                Arrays.asList(
+                        new Product("1", "Laptop", 2000.0),
+                        new Product("2", "Mouse", 50.0)),
+                Arrays.asList(
+                        new Product("3", "Keyboard", 150.0),
+                        new Product("4", "Monitor", 300.0)));
+    }
+
+    public ProductService(ObjectMapper objectMapper, List<Product> databaseProducts, List<Product> apiProducts) {
+        this(objectMapper, FEED_THREADS, PREFETCH_THREADS, databaseProducts, apiProducts);
+    }
+
+    public ProductService(ObjectMapper objectMapper, int feedThreads, int prefetchThreads,
+                          List<Product> databaseProducts, List<Product> apiProducts) {
+        this.objectMapper = objectMapper;
+        this.feedExecutor = newPool("product-feed", feedThreads, (task, executor) -> {
+            throw new RejectedExecutionException("Limite de leituras simultâneas do catálogo atingido");
+        });
+        this.prefetchExecutor = newPool("product-prefetch", prefetchThreads, (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Pool de prefetch encerrado");
+            }
+            task.run();
+        });
+
+        // As fontes são lidas em paralelo e unidas por id; uma fonte lenta é descartada após o timeout
+        this.catalog = new CompositeProductCollection(List.of(
+                new DatabaseProductCollection(new InMemoryProductPageSource(databaseProducts), PAGE_SIZE, prefetchExecutor),
+                new ExternalApiProductCollection(new InMemoryProductPageSource(apiProducts), PAGE_SIZE, prefetchExecutor)),
+                Comparator.comparing(Product::getId), SOURCE_TIMEOUT, feedExecutor);
+    }
 
-        List<Product> apiProducts = Arrays.asList(
-                new Product("3", "Keyboard", 150.0),
-                new Product("4", "Monitor", 300.0)
-        );
+    // Escreve o catálogo como um array JSON à medida que as páginas chegam, sem montar a lista completa.
+    // O flush a cada página envia a resposta em partes (chunked) para o cliente.
+    // As fontes começam a ser lidas antes de qualquer byte da resposta: uma rejeição ainda pode virar 503.
+    public void writeAllProducts(OutputStream output) throws IOException {
+        ProductIterator iterator = catalog.createIterator();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.writeStartArray();
+            try {
+                int written = 0;
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    if (++written % PAGE_SIZE == 0) {
+                        generator.flush();
+                    }
+                }
+            } finally {
+                // Cliente desconectado no meio da resposta: as fontes param de ser lidas
+                iterator.close();
+            }
+            generator.writeEndArray();
+        }
+    }
 
-        ProductCollection dbCollection = new DatabaseProductCollection(databaseProducts);
-        ProductCollection apiCollection = new ExternalApiProductCollection(apiProducts);
+    // Lê uma página a partir do cursor (ou do início) e devolve o cursor da página seguinte.
+    // Toda a posição está no cursor, então o cliente pode retomar depois de uma falha em qualquer servidor.
+    public ProductPage getProductsPage(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + MAX_LIMIT);
+        }
+        ProductCursor position = cursor == null || cursor.isBlank()
+                ? ProductCursor.initial(catalog.sources())
+                : ProductCursor.decode(cursor, catalog.sources());
 
-        List<Product> allProducts = new ArrayList<>();
+        SortedMergeProductIterator iterator = catalog.createIterator(position, limit);
+        try {
+            List<Product> products = new ArrayList<>(limit);
+            while (products.size() < limit && iterator.hasNext()) {
+                products.add(iterator.next());
+            }
 
-        ProductIterator dbIterator = dbCollection.createIterator();
-        while (dbIterator.hasNext()) {
-            allProducts.add(dbIterator.next());
+            // Cada fonte entrega até um produto além da página, então hasNext só é falso quando todas acabaram.
+            // Uma fonte descartada por timeout mantém a posição, para ser lida de novo na próxima página
+            boolean finished = !iterator.hasNext() && iterator.getTimedOutSources().isEmpty();
+            String nextCursor = finished ? null : position.advance(iterator.getConsumed()).encode();
+            return new ProductPage(products, nextCursor, iterator.getTimedOutSources());
+        } finally {
+            // A página termina antes das fontes: os produtos que sobraram nas filas não serão lidos
+            iterator.close();
         }
+    }
 
-        ProductIterator apiIterator = apiCollection.createIterator();
-        while (apiIterator.hasNext()) {
-            allProducts.add(apiIterator.next());
+    // Cursores iniciais de partes disjuntas do catálogo, para leitura paralela por vários workers
+    public List<String> splitCursors(int parts) {
+        if (parts < 1 || parts > MAX_PARTS) {
+            throw new IllegalArgumentException("O número de partes deve estar entre 1 e " + MAX_PARTS);
         }
+        List<String> cursors = new ArrayList<>(parts);
+        for (ProductCursor cursor : ProductCursor.split(catalog.sourceCounts(), parts)) {
+            cursors.add(cursor.encode());
+        }
+        return cursors;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        feedExecutor.shutdownNow();
+        prefetchExecutor.shutdownNow();
+    }
 
-        return allProducts;
+    private static ExecutorService newPool(String name, int threads, RejectedExecutionHandler rejection) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4), runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                }, rejection);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
     }
 }
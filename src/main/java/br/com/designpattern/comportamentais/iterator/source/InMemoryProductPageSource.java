@@ -0,0 +1,26 @@
+package br.com.designpattern.comportamentais.iterator.source;
+
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+import java.util.List;
+
+// Simula uma origem paginada a partir de uma lista em memória
+public class InMemoryProductPageSource implements ProductPageSource {
+    private final List<Product> products;
+
+    public InMemoryProductPageSource(List<Product> products) {
+        this.products = products;
+    }
+
+    @Override
+    public List<Product> fetchPage(int pageNumber, int pageSize) {
+        int from = (int) Math.min(products.size(), (long) pageNumber * pageSize);
+        int to = Math.min(products.size(), from + pageSize);
+        return List.copyOf(products.subList(from, to));
+    }
+
+    @Override
+    public long count() {
+        return products.size();
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.designpattern.comportamentais.iterator.source;
+
+import br.com.designpattern.comportamentais.iterator.model.Product;
+
+import java.util.List;
+
+// Origem paginada de produtos (ex.: consulta com LIMIT/OFFSET no banco ou endpoint paginado da API externa).
+// Uma página com menos de pageSize itens indica o fim dos dados.
+public interface ProductPageSource {
+    List<Product> fetchPage(int pageNumber, int pageSize);
+
+    // Total de produtos (ex.: SELECT COUNT ou o totalElements da API); -1 quando desconhecido
+    default long count() {
+        return -1;
+    }
+}
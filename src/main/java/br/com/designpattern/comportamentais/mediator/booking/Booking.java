@@ -0,0 +1,82 @@
+package br.com.designpattern.comportamentais.mediator.booking;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Progresso de uma reserva: os componentes atualizam o estado em threads diferentes,
+// e o endpoint de status lê sem bloquear.
+public class Booking {
+    private final String id;
+    private final String flightId;
+    private final Instant createdAt = Instant.now();
+    private final List<BookingStep> steps = new CopyOnWriteArrayList<>();
+    private volatile BookingStatus status = BookingStatus.PENDING;
+    private volatile String failureReason;
+    private volatile long finishedAtNanos;
+    private volatile int seat = -1;
+
+    public Booking(String id, String flightId) {
+        this.id = id;
+        this.flightId = flightId;
+    }
+
+    // Depois de um estado final, eventos atrasados não mudam mais a reserva.
+    // Retorna false quando a reserva já estava em um estado final.
+    public synchronized boolean advance(String event, BookingStatus next) {
+        if (status.isFinal()) {
+            return false;
+        }
+        steps.add(new BookingStep(event, Instant.now()));
+        status = next;
+        if (next.isFinal()) {
+            finishedAtNanos = System.nanoTime();
+        }
+        return true;
+    }
+
+    public synchronized boolean fail(String reason) {
+        if (status.isFinal()) {
+            return false;
+        }
+        failureReason = reason;
+        return advance("failed", BookingStatus.FAILED);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFlightId() {
+        return flightId;
+    }
+
+    // -1 enquanto nenhum assento estiver reservado
+    public int getSeat() {
+        return seat;
+    }
+
+    public void setSeat(int seat) {
+        this.seat = seat;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public List<BookingStep> getSteps() {
+        return steps;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    long getFinishedAtNanos() {
+        return finishedAtNanos;
+    }
+}
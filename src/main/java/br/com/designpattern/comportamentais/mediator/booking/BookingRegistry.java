@@ -0,0 +1,47 @@
+package br.com.designpattern.comportamentais.mediator.booking;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// Reservas em andamento e concluídas. As concluídas ficam disponíveis para consulta por um tempo
+// e depois são removidas, para que o mapa não cresça sem limite.
+@Component
+public class BookingRegistry {
+
+    private static final long RETENTION_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final ConcurrentHashMap<String, Booking> bookings = new ConcurrentHashMap<>();
+    // Como a retenção é fixa, a ordem de conclusão também é a ordem de remoção
+    private final Queue<Booking> finished = new ConcurrentLinkedQueue<>();
+
+    public Booking create(String flightId) {
+        Booking booking = new Booking(UUID.randomUUID().toString(), flightId);
+        bookings.put(booking.getId(), booking);
+        return booking;
+    }
+
+    public Booking get(String id) {
+        return bookings.get(id);
+    }
+
+    public void remove(String id) {
+        bookings.remove(id);
+    }
+
+    // Chamado uma única vez, por quem levou a reserva ao estado final
+    public void finish(Booking booking) {
+        finished.add(booking);
+        long now = System.nanoTime();
+        Booking oldest;
+        while ((oldest = finished.peek()) != null && now - oldest.getFinishedAtNanos() > RETENTION_NANOS) {
+            if (finished.remove(oldest)) {
+                bookings.remove(oldest.getId(), oldest);
+            }
+        }
+    }
+}
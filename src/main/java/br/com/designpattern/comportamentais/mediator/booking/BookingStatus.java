@@ -0,0 +1,13 @@
+package br.com.designpattern.comportamentais.mediator.booking;
+
+public enum BookingStatus {
+    PENDING,
+    SEAT_RESERVED,
+    PAYMENT_PROCESSED,
+    CONFIRMED,
+    FAILED;
+
+    public boolean isFinal() {
+        return this == CONFIRMED || this == FAILED;
+    }
+}
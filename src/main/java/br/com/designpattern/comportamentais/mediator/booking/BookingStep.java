@@ -0,0 +1,22 @@
+package br.com.designpattern.comportamentais.mediator.booking;
+
+import java.time.Instant;
+
+// Evento já processado de uma reserva, com o horário em que chegou ao mediator
+public class BookingStep {
+    private final String event;
+    private final Instant at;
+
+    public BookingStep(String event, Instant at) {
+        this.event = event;
+        this.at = at;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public Instant getAt() {
+        return at;
+    }
+}
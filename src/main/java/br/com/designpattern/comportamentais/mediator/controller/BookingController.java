@@ -1,21 +1,59 @@
 package br.com.designpattern.comportamentais.mediator.controller;
 
-import br.com.designpattern.comportamentais.mediator.service.AvailabilityService;
+import br.com.designpattern.comportamentais.mediator.booking.Booking;
+import br.com.designpattern.comportamentais.mediator.booking.BookingRegistry;
+import br.com.designpattern.comportamentais.mediator.mediator.FlightBookingMediator;
+import br.com.designpattern.comportamentais.mediator.service.SeatInventory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 public class BookingController {
 
-    private final AvailabilityService availabilityService;
+    private final FlightBookingMediator mediator;
+    private final BookingRegistry bookings;
+    private final SeatInventory inventory;
 
-    public BookingController(AvailabilityService availabilityService) {
-        this.availabilityService = availabilityService;
+    public BookingController(FlightBookingMediator mediator, BookingRegistry bookings, SeatInventory inventory) {
+        this.mediator = mediator;
+        this.bookings = bookings;
+        this.inventory = inventory;
     }
 
+    // Responde assim que a reserva é aceita; o progresso é consultado em /mediator/bookings/{id}
     @GetMapping("/mediator/book-flight")
-    public String bookFlight() {
-        availabilityService.reserveSeat();
-        return "Flight booking initiated!";
+    public ResponseEntity<Object> bookFlight(@RequestParam(value = "flight", defaultValue = "FL-100") String flight) {
+        try {
+            String bookingId = mediator.startBooking(flight);
+            return ResponseEntity.accepted().body(Map.of("bookingId", bookingId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Sistema sobrecarregado, tente novamente");
+        }
+    }
+
+    @GetMapping("/mediator/bookings/{id}")
+    public ResponseEntity<Booking> bookingStatus(@PathVariable("id") String id) {
+        Booking booking = bookings.get(id);
+        if (booking == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(booking);
+    }
+
+    @GetMapping("/mediator/flights/{id}/seats")
+    public ResponseEntity<Object> seats(@PathVariable("id") String id) {
+        if (!inventory.hasFlight(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(inventory.summary(id));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package br.com.designpattern.comportamentais.mediator.event;
+
+public abstract class BookingEvent implements MediatorEvent {
+    private final String bookingId;
+
+    protected BookingEvent(String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.designpattern.comportamentais.mediator.event;
+
+import br.com.designpattern.comportamentais.mediator.service.Component;
+
+@FunctionalInterface
+public interface EventHandler<E extends MediatorEvent> {
+    void handle(Component sender, E event);
+}
@@ -0,0 +1,38 @@
+package br.com.designpattern.comportamentais.mediator.event;
+
+import br.com.designpattern.comportamentais.mediator.service.Component;
+
+import java.util.Arrays;
+
+// Tabela de rotas indexada pelo id do tipo de evento. O registro acontece na inicialização
+// e monta uma nova tabela (copy-on-write); o despacho só lê um array e chama os handlers em ordem.
+public class EventRouter {
+
+    private static final EventHandler<?>[] NO_HANDLERS = new EventHandler<?>[0];
+
+    private volatile EventHandler<?>[][] routes = new EventHandler<?>[0][];
+
+    public synchronized <E extends MediatorEvent> void register(EventType<E> type, EventHandler<? super E> handler) {
+        EventHandler<?>[][] current = routes;
+        EventHandler<?>[][] next = Arrays.copyOf(current, Math.max(current.length, type.getId() + 1));
+        EventHandler<?>[] handlers = next[type.getId()] == null ? NO_HANDLERS : next[type.getId()];
+        handlers = Arrays.copyOf(handlers, handlers.length + 1);
+        handlers[handlers.length - 1] = handler;
+        next[type.getId()] = handlers;
+        routes = next;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void dispatch(Component sender, MediatorEvent event) {
+        EventHandler<?>[][] table = routes;
+        int id = event.type().getId();
+        EventHandler<?>[] handlers = id < table.length ? table[id] : null;
+        if (handlers == null) {
+            // Evento sem rota é erro de configuração: falha em vez de ser ignorado em silêncio
+            throw new IllegalStateException("Nenhum handler registrado para o evento " + event.type());
+        }
+        for (EventHandler handler : handlers) {
+            handler.handle(sender, event);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.designpattern.comportamentais.mediator.event;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Tipo de evento com um índice sequencial: o roteador usa o índice para achar os handlers em um array,
+// sem comparar ou calcular hash de strings no despacho
+public final class EventType<E extends MediatorEvent> {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final int id;
+    private final String name;
+
+    private EventType(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public static <E extends MediatorEvent> EventType<E> define(String name) {
+        return new EventType<>(NEXT_ID.getAndIncrement(), name);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
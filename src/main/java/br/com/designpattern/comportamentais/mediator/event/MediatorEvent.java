@@ -0,0 +1,5 @@
+package br.com.designpattern.comportamentais.mediator.event;
+
+public interface MediatorEvent {
+    EventType<?> type();
+}
@@ -0,0 +1,14 @@
+package br.com.designpattern.comportamentais.mediator.event;
+
+public class NotificationSent extends BookingEvent {
+    public static final EventType<NotificationSent> TYPE = EventType.define("notificationSent");
+
+    public NotificationSent(String bookingId) {
+        super(bookingId);
+    }
+
+    @Override
+    public EventType<NotificationSent> type() {
+        return TYPE;
+    }
+}
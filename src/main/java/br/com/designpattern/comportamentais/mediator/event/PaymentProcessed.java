@@ -0,0 +1,14 @@
+package br.com.designpattern.comportamentais.mediator.event;
+
+public class PaymentProcessed extends BookingEvent {
+    public static final EventType<PaymentProcessed> TYPE = EventType.define("paymentProcessed");
+
+    public PaymentProcessed(String bookingId) {
+        super(bookingId);
+    }
+
+    @Override
+    public EventType<PaymentProcessed> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.designpattern.comportamentais.mediator.event;
+
+public class SeatReserved extends BookingEvent {
+    public static final EventType<SeatReserved> TYPE = EventType.define("seatReserved");
+
+    private final String flightId;
+    private final int seat;
+
+    public SeatReserved(String bookingId, String flightId, int seat) {
+        super(bookingId);
+        this.flightId = flightId;
+        this.seat = seat;
+    }
+
+    public String getFlightId() {
+        return flightId;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    @Override
+    public EventType<SeatReserved> type() {
+        return TYPE;
+    }
+}
@@ -1,8 +1,18 @@
 package br.com.designpattern.comportamentais.mediator.mediator;
 
 
+import br.com.designpattern.comportamentais.mediator.event.BookingEvent;
+import br.com.designpattern.comportamentais.mediator.event.EventHandler;
+import br.com.designpattern.comportamentais.mediator.event.EventType;
+import br.com.designpattern.comportamentais.mediator.event.MediatorEvent;
 import br.com.designpattern.comportamentais.mediator.service.Component;
 
 public interface FlightBookingMediator {
-    void notify(Component sender, String event);
+    // Inicia a reserva e retorna o id sem esperar pelas etapas
+    String startBooking(String flightId);
+
+    void notify(Component sender, MediatorEvent event);
+
+    // Registra, na inicialização, um handler que roda no executor do componente dono
+    <E extends BookingEvent> void register(EventType<E> type, Component owner, EventHandler<? super E> handler);
 }
@@ -1,31 +1,186 @@
 package br.com.designpattern.comportamentais.mediator.mediator;
 
+import br.com.designpattern.comportamentais.mediator.booking.Booking;
+import br.com.designpattern.comportamentais.mediator.booking.BookingRegistry;
+import br.com.designpattern.comportamentais.mediator.booking.BookingStatus;
+import br.com.designpattern.comportamentais.mediator.event.BookingEvent;
+import br.com.designpattern.comportamentais.mediator.event.EventHandler;
+import br.com.designpattern.comportamentais.mediator.event.EventRouter;
+import br.com.designpattern.comportamentais.mediator.event.EventType;
+import br.com.designpattern.comportamentais.mediator.event.MediatorEvent;
+import br.com.designpattern.comportamentais.mediator.event.NotificationSent;
+import br.com.designpattern.comportamentais.mediator.event.PaymentProcessed;
+import br.com.designpattern.comportamentais.mediator.event.SeatReserved;
+import br.com.designpattern.comportamentais.mediator.saga.BookingSagaEngine;
+import br.com.designpattern.comportamentais.mediator.saga.SagaStep;
 import br.com.designpattern.comportamentais.mediator.service.Component;
 import br.com.designpattern.comportamentais.mediator.service.AvailabilityService;
 import br.com.designpattern.comportamentais.mediator.service.NotificationService;
 import br.com.designpattern.comportamentais.mediator.service.PaymentService;
+import jakarta.annotation.PreDestroy;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Cada evento é despachado para o executor do componente que deve reagir a ele.
+// Assim as etapas da reserva não se aninham na pilha da requisição, e um componente lento
+// (ex.: gateway de pagamento) não ocupa as threads dos demais.
+// Os componentes registram os eventos que tratam na inicialização; o despacho usa a tabela do EventRouter.
+// Cada reserva é uma saga: falhas e prazos esgotados disparam as compensações das etapas já concluídas.
 @org.springframework.stereotype.Component
 public class FlightBookingMediatorImpl implements FlightBookingMediator {
 
+    private static final int QUEUE_CAPACITY = 10_000;
+
     private final AvailabilityService availabilityService;
-    private final PaymentService paymentService;
-    private final NotificationService notificationService;
+    private final BookingRegistry bookings;
+    private final BookingSagaEngine sagaEngine;
+    private final EventRouter router = new EventRouter();
+
+    private final ExecutorService availabilityExecutor = newExecutor("mediator-availability", 4);
+    private final ExecutorService paymentExecutor = newExecutor("mediator-payment", 8);
+    private final ExecutorService notificationExecutor = newExecutor("mediator-notification", 2);
+    // Consultado apenas no registro, nunca no despacho
+    private final Map<Component, ExecutorService> executors = new IdentityHashMap<>();
 
     public FlightBookingMediatorImpl(AvailabilityService availabilityService,
                                      PaymentService paymentService,
-                                     NotificationService notificationService) {
+                                     NotificationService notificationService,
+                                     BookingRegistry bookings,
+                                     BookingSagaEngine sagaEngine) {
         this.availabilityService = availabilityService;
-        this.paymentService = paymentService;
-        this.notificationService = notificationService;
+        this.bookings = bookings;
+        this.sagaEngine = sagaEngine;
+
+        executors.put(availabilityService, availabilityExecutor);
+        executors.put(paymentService, paymentExecutor);
+        executors.put(notificationService, notificationExecutor);
+
+        // Progresso da reserva: registrado antes dos componentes para rodar primeiro, na thread de quem publicou
+        router.register(SeatReserved.TYPE, (sender, event) -> {
+            sagaEngine.recordSeat(event.getBookingId(), event.getFlightId(), event.getSeat());
+            advance(event, BookingStatus.SEAT_RESERVED);
+        });
+        router.register(PaymentProcessed.TYPE, (sender, event) -> {
+            sagaEngine.record(event.getBookingId(), SagaStep.PAYMENT_PROCESSED);
+            advance(event, BookingStatus.PAYMENT_PROCESSED);
+        });
+        router.register(NotificationSent.TYPE, (sender, event) -> {
+            // Se a saga já expirou ou falhou, a compensação vai liberar o assento: confirmar aqui o prenderia para sempre
+            if (!sagaEngine.complete(event.getBookingId())) {
+                failBooking(event.getBookingId(), "Saga encerrada antes da confirmação");
+                return;
+            }
+            availabilityService.confirmSeat(event.getBookingId());
+            advance(event, BookingStatus.CONFIRMED);
+        });
+
+        sagaEngine.registerCompensation(SagaStep.SEAT_RESERVED, saga -> availabilityService.releaseSeat(saga.getFlightId(), saga.getSeat()));
+        sagaEngine.registerCompensation(SagaStep.PAYMENT_PROCESSED, saga -> paymentService.refundPayment(saga.getBookingId()));
+        sagaEngine.onTimeout(bookingId -> failBooking(bookingId, "Tempo esgotado"));
+
+        availabilityService.setMediator(this);
+        paymentService.setMediator(this);
+        notificationService.setMediator(this);
     }
 
     @Override
-    public void notify(Component sender, String event) {
-        if (event.equals("seatReserved")) {
-            paymentService.processPayment();
-        } else if (event.equals("paymentProcessed")) {
-            notificationService.sendNotification();
+    public String startBooking(String flightId) {
+        if (!availabilityService.hasFlight(flightId)) {
+            throw new IllegalArgumentException("Voo não encontrado: " + flightId);
         }
+        Booking booking = bookings.create(flightId);
+        sagaEngine.start(booking.getId(), flightId);
+        try {
+            availabilityExecutor.execute(step(booking.getId(), () -> availabilityService.reserveSeat(booking.getId())));
+        } catch (RejectedExecutionException e) {
+            sagaEngine.abort(booking.getId());
+            bookings.remove(booking.getId());
+            throw e;
+        }
+        return booking.getId();
+    }
+
+    @Override
+    public void notify(Component sender, MediatorEvent event) {
+        router.dispatch(sender, event);
+    }
+
+    @Override
+    public <E extends BookingEvent> void register(EventType<E> type, Component owner, EventHandler<? super E> handler) {
+        ExecutorService executor = executors.get(owner);
+        if (executor == null) {
+            throw new IllegalArgumentException("Componente não gerenciado pelo mediator: " + owner.getClass().getSimpleName());
+        }
+        router.register(type, (sender, event) -> {
+            // Reserva que já falhou ou expirou não avança para a próxima etapa
+            Booking booking = bookings.get(event.getBookingId());
+            if (booking != null && !booking.getStatus().isFinal()) {
+                dispatch(executor, event.getBookingId(), () -> handler.handle(sender, event));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        availabilityExecutor.shutdownNow();
+        paymentExecutor.shutdownNow();
+        notificationExecutor.shutdownNow();
+    }
+
+    private void advance(BookingEvent event, BookingStatus status) {
+        Booking booking = bookings.get(event.getBookingId());
+        if (booking == null) {
+            return;
+        }
+        // Só quem leva a reserva ao estado final a coloca na fila de retenção
+        if (booking.advance(event.type().getName(), status) && status.isFinal()) {
+            bookings.finish(booking);
+        }
+    }
+
+    private void dispatch(ExecutorService executor, String bookingId, Runnable action) {
+        try {
+            executor.execute(step(bookingId, action));
+        } catch (RejectedExecutionException e) {
+            fail(bookingId, "Fila do componente cheia");
+        }
+    }
+
+    // Uma exceção em qualquer etapa marca a reserva como falha
+    private Runnable step(String bookingId, Runnable action) {
+        return () -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                fail(bookingId, e.getMessage());
+            }
+        };
+    }
+
+    private void fail(String bookingId, String reason) {
+        failBooking(bookingId, reason);
+        sagaEngine.abort(bookingId);
+    }
+
+    private void failBooking(String bookingId, String reason) {
+        Booking booking = bookings.get(bookingId);
+        if (booking != null && booking.fail(reason)) {
+            bookings.finish(booking);
+        }
+    }
+
+    private static ExecutorService newExecutor(String name, int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
@@ -0,0 +1,235 @@
+package br.com.designpattern.comportamentais.mediator.saga;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Acompanha as etapas de cada reserva e, em caso de falha ou de prazo esgotado, executa as compensações
+// das etapas concluídas em ordem inversa (ex.: estorna o pagamento e libera o assento).
+// Os prazos ficam em um timing wheel hierárquico e o estado é gravado em um log local para sobreviver a reinícios.
+@Component
+public class BookingSagaEngine {
+
+    // "log" já é o SagaLog
+    private static final Logger logger = LoggerFactory.getLogger(BookingSagaEngine.class);
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long COMPACT_MIN_RECORDS = 100_000;
+
+    private final SagaLog log;
+    private final ConcurrentHashMap<String, Saga> sagas = new ConcurrentHashMap<>();
+    private final TimingWheel<Saga> wheel = new TimingWheel<>(TICK_NANOS, System.nanoTime());
+    private final Map<SagaStep, Consumer<Saga>> compensations = Collections.synchronizedMap(new EnumMap<>(SagaStep.class));
+    private volatile Consumer<String> timeoutListener = bookingId -> { };
+    private final ExecutorService compensationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "saga-compensation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Thread timer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public BookingSagaEngine(@Value("${mediator.saga.path:${java.io.tmpdir}/designpattern/booking-sagas.log}") String file) {
+        this(Path.of(file));
+    }
+
+    public BookingSagaEngine(Path path) {
+        this.log = new SagaLog(path);
+        this.timer = new Thread(this::timerLoop, "saga-timer");
+        this.timer.setDaemon(true);
+        this.timer.start();
+    }
+
+    // A compensação recebe a saga, que traz os dados gravados no log (voo e assento), e não só o id da reserva
+    public void registerCompensation(SagaStep step, Consumer<Saga> compensation) {
+        compensations.put(step, compensation);
+    }
+
+    // Chamado quando uma saga expira, antes das compensações
+    public void onTimeout(Consumer<String> listener) {
+        this.timeoutListener = listener;
+    }
+
+    public void start(String bookingId, String flightId) {
+        Saga saga = new Saga(bookingId, flightId, System.currentTimeMillis() + TIMEOUT_MILLIS);
+        sagas.put(bookingId, saga);
+        log.start(bookingId, flightId, saga.getDeadlineEpochMillis());
+        log.sync();
+        saga.setTimeout(wheel.schedule(saga, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS)));
+    }
+
+    public void record(String bookingId, SagaStep step) {
+        record(bookingId, null, step, -1);
+    }
+
+    public void recordSeat(String bookingId, String flightId, int seat) {
+        record(bookingId, flightId, SagaStep.SEAT_RESERVED, seat);
+    }
+
+    private void record(String bookingId, String flightId, SagaStep step, int seat) {
+        Saga saga = sagas.get(bookingId);
+        if (saga == null) {
+            // A saga já foi removida: a compensação da etapa atrasada usa os dados recebidos aqui
+            saga = new Saga(bookingId, flightId, 0);
+            saga.close();
+        }
+        if (!saga.addStep(step, seat)) {
+            // A saga já terminou (ex.: expirou enquanto o pagamento estava em andamento): desfaz só esta etapa
+            compensate(saga, List.of(step));
+            return;
+        }
+        log.step(bookingId, step, seat);
+        log.sync();
+    }
+
+    // Retorna false se a saga já tinha terminado (expirada ou abortada)
+    public boolean complete(String bookingId) {
+        Saga saga = sagas.remove(bookingId);
+        return saga != null && close(saga) != null;
+    }
+
+    public void abort(String bookingId) {
+        Saga saga = sagas.remove(bookingId);
+        if (saga == null) {
+            return;
+        }
+        List<SagaStep> steps = close(saga);
+        if (steps != null) {
+            compensate(saga, steps);
+        }
+    }
+
+    // Recarrega as sagas abertas do log; as que já passaram do prazo expiram no próximo tick
+    public int recover() {
+        Map<String, Saga> open = log.load();
+        long nowMillis = System.currentTimeMillis();
+        long nowNanos = System.nanoTime();
+        for (Saga saga : open.values()) {
+            sagas.put(saga.getBookingId(), saga);
+            long remaining = Math.max(0, saga.getDeadlineEpochMillis() - nowMillis);
+            saga.setTimeout(wheel.schedule(saga, nowNanos + TimeUnit.MILLISECONDS.toNanos(remaining)));
+        }
+        log.compact(sagas.values());
+        return open.size();
+    }
+
+    public int pendingSagas() {
+        return sagas.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        running = false;
+        timer.interrupt();
+        compensationExecutor.shutdown();
+        log.close();
+    }
+
+    private List<SagaStep> close(Saga saga) {
+        List<SagaStep> steps = saga.close();
+        if (steps == null) {
+            return null;
+        }
+        TimingWheel.Timeout<Saga> timeout = saga.getTimeout();
+        if (timeout != null) {
+            wheel.cancel(timeout);
+        }
+        log.end(saga.getBookingId());
+        log.sync();
+        return steps;
+    }
+
+    // Fecha a saga vencida e grava o END sem esperar o disco; devolve as etapas a compensar ou null
+    private List<SagaStep> expire(Saga saga) {
+        if (!sagas.remove(saga.getBookingId(), saga)) {
+            return null;
+        }
+        List<SagaStep> steps = saga.close();
+        if (steps != null) {
+            try {
+                log.end(saga.getBookingId());
+            } catch (RuntimeException e) {
+                // A compensação roda mesmo assim; sem o END, a saga volta na recuperação e é compensada de novo
+                logger.warn("Falha ao registrar a expiração da reserva {}", saga.getBookingId(), e);
+            }
+        }
+        return steps;
+    }
+
+    private void compensate(Saga saga, List<SagaStep> steps) {
+        if (steps.isEmpty()) {
+            return;
+        }
+        compensationExecutor.execute(() -> {
+            for (int i = steps.size() - 1; i >= 0; i--) {
+                Consumer<Saga> compensation = compensations.get(steps.get(i));
+                if (compensation == null) {
+                    continue;
+                }
+                try {
+                    compensation.accept(saga);
+                } catch (RuntimeException e) {
+                    logger.warn("Falha ao compensar {} da reserva {}", steps.get(i), saga.getBookingId(), e);
+                }
+            }
+        });
+    }
+
+    // Todos os END de um tick vão para o disco em um único fsync, antes das compensações:
+    // uma saga compensada não volta como aberta depois de um reinício
+    private void expireAll(List<Saga> expired) {
+        List<Saga> closed = new ArrayList<>(expired.size());
+        List<List<SagaStep>> steps = new ArrayList<>(expired.size());
+        for (Saga saga : expired) {
+            List<SagaStep> completed = expire(saga);
+            if (completed != null) {
+                closed.add(saga);
+                steps.add(completed);
+            }
+        }
+        try {
+            log.sync();
+        } catch (RuntimeException e) {
+            logger.warn("Falha no fsync das expirações", e);
+        }
+        for (int i = 0; i < closed.size(); i++) {
+            timeoutListener.accept(closed.get(i).getBookingId());
+            compensate(closed.get(i), steps.get(i));
+        }
+    }
+
+    private void timerLoop() {
+        while (running) {
+            LockSupport.parkNanos(TICK_NANOS);
+            List<Saga> expired = wheel.advance(System.nanoTime());
+            if (!expired.isEmpty()) {
+                expireAll(expired);
+            }
+            // Compacta fora do caminho das requisições, quando o log tem muito mais registros que sagas abertas
+            long records = log.records();
+            if (records > COMPACT_MIN_RECORDS && records > 4L * sagas.size()) {
+                // A visão do mapa é percorrida já com o log travado: uma saga registrada antes disso está no mapa
+                log.compact(sagas.values());
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.designpattern.comportamentais.mediator.saga;
+
+import br.com.designpattern.comportamentais.mediator.mediator.FlightBookingMediator;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Na inicialização, recarrega as sagas abertas. Depende do mediator para que as compensações
+// já estejam registradas quando uma saga recuperada expirar.
+@Component
+public class BookingSagaRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSagaRecovery.class);
+
+    private final BookingSagaEngine sagaEngine;
+
+    public BookingSagaRecovery(BookingSagaEngine sagaEngine, FlightBookingMediator mediator) {
+        this.sagaEngine = sagaEngine;
+    }
+
+    @PostConstruct
+    public void recover() {
+        long start = System.nanoTime();
+        int recovered = sagaEngine.recover();
+        log.info("{} sagas recuperadas em {} ms", recovered, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.designpattern.comportamentais.mediator.saga;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+// Estado de uma saga: etapas concluídas, prazo e os dados de que as compensações precisam (voo e assento).
+// Depois de fechada (concluída, abortada ou expirada) não aceita novas etapas, para que uma etapa atrasada
+// seja compensada separadamente.
+public final class Saga {
+    private final String bookingId;
+    private final String flightId;
+    private final long deadlineEpochMillis;
+    private final EnumSet<SagaStep> steps = EnumSet.noneOf(SagaStep.class);
+    private int seat = -1;
+    private boolean closed;
+    private TimingWheel.Timeout<Saga> timeout;
+
+    Saga(String bookingId, String flightId, long deadlineEpochMillis) {
+        this.bookingId = bookingId;
+        this.flightId = flightId;
+        this.deadlineEpochMillis = deadlineEpochMillis;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public String getFlightId() {
+        return flightId;
+    }
+
+    // -1 enquanto nenhum assento estiver reservado
+    public synchronized int getSeat() {
+        return seat;
+    }
+
+    long getDeadlineEpochMillis() {
+        return deadlineEpochMillis;
+    }
+
+    // O assento é guardado mesmo com a saga fechada, para a compensação da etapa atrasada
+    synchronized boolean addStep(SagaStep step, int seat) {
+        if (seat >= 0) {
+            this.seat = seat;
+        }
+        if (closed) {
+            return false;
+        }
+        steps.add(step);
+        return true;
+    }
+
+    synchronized List<SagaStep> getSteps() {
+        return new ArrayList<>(steps);
+    }
+
+    // Fecha a saga e devolve as etapas concluídas, ou null se ela já estava fechada
+    synchronized List<SagaStep> close() {
+        if (closed) {
+            return null;
+        }
+        closed = true;
+        return new ArrayList<>(steps);
+    }
+
+    synchronized TimingWheel.Timeout<Saga> getTimeout() {
+        return timeout;
+    }
+
+    synchronized void setTimeout(TimingWheel.Timeout<Saga> timeout) {
+        this.timeout = timeout;
+    }
+}
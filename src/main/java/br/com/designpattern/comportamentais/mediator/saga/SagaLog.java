@@ -0,0 +1,332 @@
+package br.com.designpattern.comportamentais.mediator.saga;
+
+import br.com.designpattern.comportamentais.shared.RecordCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+// Log append-only do estado das sagas, com registros no formato do RecordCodec ([int tamanho][int crc32][payload]):
+//   START: [byte tipo][short+bytes bookingId][long prazo (epoch millis)][short+bytes flightId]
+//   STEP:  [byte tipo][short+bytes bookingId][byte etapa][int assento] (-1 quando a etapa não reserva assento)
+//   END:   [byte tipo][short+bytes bookingId]
+// O voo e o assento ficam no log porque, depois de um reinício, a compensação não tem a reserva em memória.
+// Gravar não espera o disco: sync() faz group commit, com o fsync em uma thread dedicada atendendo todos os
+// chamadores concorrentes de uma vez. Um registro incompleto ou corrompido encerra a leitura na reabertura.
+// A compactação reescreve apenas as sagas abertas em um arquivo novo, com fsync, e troca os arquivos de forma atômica.
+public class SagaLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SagaLog.class);
+
+    private static final byte START = 1;
+    private static final byte STEP = 2;
+    private static final byte END = 3;
+    private static final int MAX_ID_BYTES = 1024;
+    private static final int MAX_RECORD_SIZE = RecordCodec.HEADER_SIZE + 32 + 2 * MAX_ID_BYTES;
+
+    private final Path path;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingFlush = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+
+    private FileChannel channel;
+    private long position;
+    private long records;
+    // Bytes gravados e bytes já em disco desde a abertura; só crescem, mesmo quando a compactação troca o arquivo
+    private long written;
+    private long durable;
+    private boolean closed;
+    private IOException failure;
+
+    public SagaLog(Path path) {
+        this.path = path;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Descarta um registro incompleto no fim, para que os próximos não fiquem depois dele
+            this.position = scan(channel, (kind, bookingId, payload) -> records++);
+            channel.truncate(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o log de sagas: " + path, e);
+        }
+
+        this.flusher = new Thread(this::flushLoop, "saga-log-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // Sagas que começaram e não terminaram
+    public Map<String, Saga> load() {
+        Map<String, Saga> open = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            scan(channel, (kind, bookingId, payload) -> {
+                if (kind == START) {
+                    long deadline = payload.getLong();
+                    open.put(bookingId, new Saga(bookingId, RecordCodec.getField(payload), deadline));
+                } else if (kind == STEP && open.containsKey(bookingId)) {
+                    SagaStep step = SagaStep.values()[payload.get()];
+                    open.get(bookingId).addStep(step, payload.getInt());
+                } else if (kind == END) {
+                    open.remove(bookingId);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o log de sagas: " + path, e);
+        } finally {
+            lock.unlock();
+        }
+        return open;
+    }
+
+    public void start(String bookingId, String flightId, long deadlineEpochMillis) {
+        byte[] id = RecordCodec.utf8(bookingId, MAX_ID_BYTES);
+        byte[] flight = RecordCodec.utf8(flightId, MAX_ID_BYTES);
+        lock.lock();
+        try {
+            begin(START, id).putLong(deadlineEpochMillis);
+            RecordCodec.putField(scratch, flight);
+            append();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void step(String bookingId, SagaStep step, int seat) {
+        byte[] id = RecordCodec.utf8(bookingId, MAX_ID_BYTES);
+        lock.lock();
+        try {
+            begin(STEP, id).put((byte) step.ordinal()).putInt(seat);
+            append();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void end(String bookingId) {
+        byte[] id = RecordCodec.utf8(bookingId, MAX_ID_BYTES);
+        lock.lock();
+        try {
+            begin(END, id);
+            append();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Group commit: espera até que tudo que foi gravado antes desta chamada esteja em disco
+    public void sync() {
+        lock.lock();
+        try {
+            long target = written;
+            pendingFlush.signal();
+            while (durable < target && !closed && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durable < target && failure != null) {
+                throw new UncheckedIOException("fsync do log de sagas falhou", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long records() {
+        lock.lock();
+        try {
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void compact(Collection<Saga> open) {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        lock.lock();
+        try {
+            long count = 0;
+            long size = 0;
+            try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Saga saga : open) {
+                    byte[] id = RecordCodec.utf8(saga.getBookingId(), MAX_ID_BYTES);
+                    begin(START, id).putLong(saga.getDeadlineEpochMillis());
+                    RecordCodec.putField(scratch, RecordCodec.utf8(saga.getFlightId(), MAX_ID_BYTES));
+                    size += writeTo(target, size);
+                    count++;
+                    int seat = saga.getSeat();
+                    for (SagaStep step : saga.getSteps()) {
+                        begin(STEP, id).put((byte) step.ordinal()).putInt(step == SagaStep.SEAT_RESERVED ? seat : -1);
+                        size += writeTo(target, size);
+                        count++;
+                    }
+                }
+                // O arquivo novo precisa estar no disco antes de substituir o antigo
+                target.force(false);
+            }
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            position = size;
+            records = count;
+            // Tudo que ainda importa está no arquivo novo, já sincronizado
+            durable = written;
+            flushed.signalAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao compactar o log de sagas: " + path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            pendingFlush.signal();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Começa um registro no scratch, depois do espaço do cabeçalho
+    private ByteBuffer begin(byte kind, byte[] bookingId) {
+        scratch.clear();
+        scratch.position(RecordCodec.HEADER_SIZE);
+        scratch.put(kind);
+        RecordCodec.putField(scratch, bookingId);
+        return scratch;
+    }
+
+    private void append() {
+        if (closed) {
+            throw new IllegalStateException("Log de sagas encerrado");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Log de sagas indisponível após falha de escrita", failure);
+        }
+        try {
+            int size = writeTo(channel, position);
+            position += size;
+            written += size;
+            records++;
+        } catch (IOException e) {
+            // Um registro pode ter ficado pela metade: o log para de aceitar escritas e quem espera o fsync é avisado
+            failure = e;
+            flushed.signalAll();
+            throw new UncheckedIOException("Falha ao gravar no log de sagas: " + path, e);
+        }
+    }
+
+    private int writeTo(FileChannel target, long offset) throws IOException {
+        RecordCodec.seal(scratch, crc);
+        int size = scratch.remaining();
+        while (scratch.hasRemaining()) {
+            offset += target.write(scratch, offset);
+        }
+        return size;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            FileChannel toFlush;
+            long target;
+            lock.lock();
+            try {
+                while (written == durable && !closed) {
+                    pendingFlush.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                toFlush = channel;
+                target = written;
+            } finally {
+                lock.unlock();
+            }
+
+            // fsync fora do lock: novos registros continuam sendo gravados enquanto o disco trabalha
+            try {
+                toFlush.force(false);
+            } catch (ClosedChannelException e) {
+                // O arquivo foi trocado pela compactação, que já deixou tudo em disco
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                log.warn("Falha no fsync do log de sagas; novas escritas serão recusadas", e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                durable = Math.max(durable, target);
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Percorre os registros válidos e devolve a posição logo depois do último
+    private static long scan(FileChannel channel, RecordVisitor visitor) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        CRC32 crc = new CRC32();
+        int offset = 0;
+        int length;
+        while ((length = RecordCodec.validLength(buffer, offset, crc)) > 0) {
+            ByteBuffer payload = buffer.slice(offset + RecordCodec.HEADER_SIZE, length);
+            byte kind = payload.get();
+            visitor.visit(kind, RecordCodec.getField(payload), payload);
+            offset += RecordCodec.HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(byte kind, String bookingId, ByteBuffer payload);
+    }
+}
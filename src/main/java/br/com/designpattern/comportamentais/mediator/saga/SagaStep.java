@@ -0,0 +1,7 @@
+package br.com.designpattern.comportamentais.mediator.saga;
+
+// Etapas da reserva que têm compensação, na ordem em que acontecem
+public enum SagaStep {
+    SEAT_RESERVED,
+    PAYMENT_PROCESSED
+}
@@ -0,0 +1,159 @@
+package br.com.designpattern.comportamentais.mediator.saga;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Timing wheel hierárquico: 4 níveis de 64 posições. O nível 0 avança um tick por vez; os níveis acima
+// guardam prazos mais distantes e são "derramados" para o nível de baixo quando a posição deles chega.
+// Agendar e cancelar custam O(1), e cada tick só toca nos prazos que vencem nele, então milhões de
+// prazos pendentes não pesam no avanço do relógio.
+public class TimingWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Slot<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickNanos, long nowNanos) {
+        this.tickNanos = tickNanos;
+        this.startNanos = nowNanos;
+        @SuppressWarnings("unchecked")
+        Slot<T>[][] levels = (Slot<T>[][]) new Slot<?>[LEVELS][WHEEL_SIZE];
+        this.slots = levels;
+        for (Slot<T>[] level : slots) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                level[i] = new Slot<>();
+            }
+        }
+    }
+
+    public synchronized Timeout<T> schedule(T payload, long deadlineNanos) {
+        long deadlineTick = Math.max(currentTick + 1, ceilDiv(deadlineNanos - startNanos, tickNanos));
+        Timeout<T> timeout = new Timeout<>(payload, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false; // Já venceu ou já foi cancelado
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    // Avança o relógio até "nowNanos" e devolve os itens cujos prazos venceram
+    public synchronized List<T> advance(long nowNanos) {
+        long targetTick = (nowNanos - startNanos) / tickNanos;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Derrama do nível mais alto para o mais baixo, para que os itens cheguem ao nível 0 ainda neste tick
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(slots[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & MASK)]);
+                }
+            }
+
+            Slot<T> slot = slots[0][(int) (currentTick & MASK)];
+            Timeout<T> timeout;
+            while ((timeout = slot.poll()) != null) {
+                if (timeout.deadlineTick > currentTick) {
+                    place(timeout); // Prazo além do alcance da roda: volta para o nível adequado
+                } else {
+                    size--;
+                    expired.add(timeout.payload);
+                }
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade(Slot<T> slot) {
+        Timeout<T> timeout;
+        while ((timeout = slot.poll()) != null) {
+            place(timeout);
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = Math.min(Math.max(timeout.deadlineTick - currentTick, 0), MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        slots[level][(int) ((tick >>> (WHEEL_BITS * level)) & MASK)].add(timeout);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return value <= 0 ? 0 : (value + divisor - 1) / divisor;
+    }
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    // Lista duplamente encadeada, para remover um item no meio em O(1) ao cancelar
+    private static final class Slot<T> {
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        private Timeout<T> poll() {
+            Timeout<T> timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
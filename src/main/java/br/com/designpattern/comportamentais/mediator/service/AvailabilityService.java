@@ -1,20 +1,61 @@
 package br.com.designpattern.comportamentais.mediator.service;
 
+import br.com.designpattern.comportamentais.mediator.booking.Booking;
+import br.com.designpattern.comportamentais.mediator.booking.BookingRegistry;
+import br.com.designpattern.comportamentais.mediator.event.SeatReserved;
 import br.com.designpattern.comportamentais.mediator.mediator.FlightBookingMediator;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AvailabilityService implements Component {
 
+    private final SeatInventory inventory;
+    private final BookingRegistry bookings;
     private FlightBookingMediator mediator;
 
+    public AvailabilityService(SeatInventory inventory, BookingRegistry bookings) {
+        this.inventory = inventory;
+        this.bookings = bookings;
+    }
+
     @Override
     public void setMediator(FlightBookingMediator mediator) {
         this.mediator = mediator;
     }
 
-    public void reserveSeat() {
-        System.out.println("AvailabilityService: Reserving seat...");
-        mediator.notify(this, "seatReserved");
+    public boolean hasFlight(String flightId) {
+        return inventory.hasFlight(flightId);
+    }
+
+    public void reserveSeat(String bookingId) {
+        Booking booking = booking(bookingId);
+        int seat = inventory.reserve(booking.getFlightId());
+        if (seat < 0) {
+            throw new IllegalStateException("Voo lotado: " + booking.getFlightId());
+        }
+        booking.setSeat(seat);
+        System.out.println("AvailabilityService: Seat " + seat + " reserved on flight " + booking.getFlightId());
+        mediator.notify(this, new SeatReserved(bookingId, booking.getFlightId(), seat));
+    }
+
+    // Compensação: devolve o assento quando a reserva falha ou expira. Recebe o voo e o assento gravados na saga,
+    // porque depois de um reinício a reserva não existe mais no BookingRegistry.
+    public void releaseSeat(String flightId, int seat) {
+        if (seat >= 0 && inventory.release(flightId, seat)) {
+            System.out.println("AvailabilityService: Seat " + seat + " released on flight " + flightId);
+        }
+    }
+
+    public void confirmSeat(String bookingId) {
+        Booking booking = booking(bookingId);
+        inventory.confirm(booking.getFlightId(), booking.getSeat());
+    }
+
+    private Booking booking(String bookingId) {
+        Booking booking = bookings.get(bookingId);
+        if (booking == null) {
+            throw new IllegalStateException("Reserva não encontrada: " + bookingId);
+        }
+        return booking;
     }
 }
@@ -1,5 +1,7 @@
 package br.com.designpattern.comportamentais.mediator.service;
 
+import br.com.designpattern.comportamentais.mediator.event.NotificationSent;
+import br.com.designpattern.comportamentais.mediator.event.PaymentProcessed;
 import br.com.designpattern.comportamentais.mediator.mediator.FlightBookingMediator;
 import org.springframework.stereotype.Service;
 
@@ -11,9 +13,12 @@ public class NotificationService implements Component {
     @Override
     public void setMediator(FlightBookingMediator mediator) {
         this.mediator = mediator;
+        // O cliente é notificado quando o pagamento é processado
+        mediator.register(PaymentProcessed.TYPE, this, (sender, event) -> sendNotification(event.getBookingId()));
     }
 
-    public void sendNotification() {
+    public void sendNotification(String bookingId) {
         System.out.println("NotificationService: Sending notification to customer...");
+        mediator.notify(this, new NotificationSent(bookingId));
     }
 }
\ No newline at end of file
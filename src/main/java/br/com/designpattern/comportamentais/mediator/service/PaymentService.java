@@ -1,5 +1,7 @@
 package br.com.designpattern.comportamentais.mediator.service;
 
+import br.com.designpattern.comportamentais.mediator.event.PaymentProcessed;
+import br.com.designpattern.comportamentais.mediator.event.SeatReserved;
 import br.com.designpattern.comportamentais.mediator.mediator.FlightBookingMediator;
 import org.springframework.stereotype.Service;
 
@@ -11,10 +13,17 @@ public class PaymentService implements Component {
     @Override
     public void setMediator(FlightBookingMediator mediator) {
         this.mediator = mediator;
+        // O pagamento começa quando o assento é reservado
+        mediator.register(SeatReserved.TYPE, this, (sender, event) -> processPayment(event.getBookingId()));
     }
 
-    public void processPayment() {
+    public void processPayment(String bookingId) {
         System.out.println("PaymentService: Processing payment...");
-        mediator.notify(this, "paymentProcessed");
+        mediator.notify(this, new PaymentProcessed(bookingId));
+    }
+
+    // Compensação: estorna o pagamento quando a reserva falha ou expira depois de paga
+    public void refundPayment(String bookingId) {
+        System.out.println("PaymentService: Refunding payment of booking " + bookingId);
     }
 }
\ No newline at end of file
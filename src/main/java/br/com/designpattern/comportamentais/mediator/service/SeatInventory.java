@@ -0,0 +1,73 @@
+package br.com.designpattern.comportamentais.mediator.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Estoque de assentos por voo. Cada voo tem o seu SeatMap, então reservas de voos diferentes
+// não disputam nada, e reservas do mesmo voo disputam apenas a palavra do bitmap que tentam alterar.
+@Component
+public class SeatInventory {
+
+    private final Map<String, SeatMap> flights = new ConcurrentHashMap<>();
+
+    // Formato: "VOO=assentos,VOO=assentos"
+    @Autowired
+    public SeatInventory(@Value("${mediator.inventory.flights:FL-100=180,FL-200=300}") String flights) {
+        for (String flight : flights.split(",")) {
+            String[] parts = flight.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Voo inválido na configuração: " + flight);
+            }
+            addFlight(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+    }
+
+    public SeatInventory() {
+    }
+
+    public void addFlight(String flightId, int seats) {
+        if (flights.putIfAbsent(flightId, new SeatMap(seats)) != null) {
+            throw new IllegalArgumentException("Voo já cadastrado: " + flightId);
+        }
+    }
+
+    public boolean hasFlight(String flightId) {
+        return flights.containsKey(flightId);
+    }
+
+    // Retorna o assento reservado ou -1 se o voo estiver lotado
+    public int reserve(String flightId) {
+        return seats(flightId).reserve();
+    }
+
+    public boolean release(String flightId, int seat) {
+        return seats(flightId).release(seat);
+    }
+
+    public boolean confirm(String flightId, int seat) {
+        return seats(flightId).confirm(seat);
+    }
+
+    public Map<String, Integer> summary(String flightId) {
+        SeatMap seats = seats(flightId);
+        Map<String, Integer> summary = new LinkedHashMap<>();
+        summary.put("capacity", seats.getCapacity());
+        summary.put("available", seats.countAvailable());
+        summary.put("held", seats.countHeld());
+        summary.put("confirmed", seats.countConfirmed());
+        return summary;
+    }
+
+    private SeatMap seats(String flightId) {
+        SeatMap seats = flights.get(flightId);
+        if (seats == null) {
+            throw new IllegalArgumentException("Voo não encontrado: " + flightId);
+        }
+        return seats;
+    }
+}
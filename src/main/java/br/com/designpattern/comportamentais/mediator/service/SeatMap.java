@@ -0,0 +1,108 @@
+package br.com.designpattern.comportamentais.mediator.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Mapa de assentos de um voo: 2 bits por assento (00 livre, 01 reservado, 11 confirmado), 32 assentos por long.
+// Cada transição é um único compareAndSet na palavra do assento, sem locks.
+public class SeatMap {
+
+    private static final int SEATS_PER_WORD = 32;
+    private static final long LOW_BITS = 0x5555_5555_5555_5555L;
+    private static final long FREE = 0b00;
+    private static final long HELD = 0b01;
+    private static final long CONFIRMED = 0b11;
+
+    private final int capacity;
+    private final AtomicLongArray words;
+
+    public SeatMap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva: " + capacity);
+        }
+        this.capacity = capacity;
+        this.words = new AtomicLongArray((capacity + SEATS_PER_WORD - 1) / SEATS_PER_WORD);
+    }
+
+    // Reserva um assento livre e retorna o número dele, ou -1 se o voo estiver lotado.
+    // A busca começa em uma palavra aleatória para que threads concorrentes disputem palavras diferentes.
+    public int reserve() {
+        int length = words.length();
+        int start = length == 1 ? 0 : ThreadLocalRandom.current().nextInt(length);
+        for (int n = 0; n < length; n++) {
+            int index = start + n < length ? start + n : start + n - length;
+            long valid = validMask(index);
+            long word = words.get(index);
+            long free;
+            while ((free = ~(word | word >>> 1) & valid) != 0) {
+                int bit = Long.numberOfTrailingZeros(free);
+                long witness = words.compareAndExchange(index, word, word | HELD << bit);
+                if (witness == word) {
+                    return index * SEATS_PER_WORD + bit / 2;
+                }
+                word = witness;
+            }
+        }
+        return -1;
+    }
+
+    // Devolve um assento reservado; assentos confirmados não voltam a ficar livres
+    public boolean release(int seat) {
+        return transition(seat, HELD, FREE);
+    }
+
+    public boolean confirm(int seat) {
+        return transition(seat, HELD, CONFIRMED);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int countHeld() {
+        return count(HELD);
+    }
+
+    public int countConfirmed() {
+        return count(CONFIRMED);
+    }
+
+    public int countAvailable() {
+        return capacity - countHeld() - countConfirmed();
+    }
+
+    private boolean transition(int seat, long from, long to) {
+        if (seat < 0 || seat >= capacity) {
+            return false;
+        }
+        int index = seat / SEATS_PER_WORD;
+        int shift = seat % SEATS_PER_WORD * 2;
+        long word = words.get(index);
+        while ((word >>> shift & 0b11) == from) {
+            long witness = words.compareAndExchange(index, word, word & ~(0b11L << shift) | to << shift);
+            if (witness == word) {
+                return true;
+            }
+            word = witness;
+        }
+        return false;
+    }
+
+    // Leitura aproximada sob concorrência: cada palavra é lida uma vez
+    private int count(long state) {
+        int total = 0;
+        for (int i = 0; i < words.length(); i++) {
+            long word = words.get(i);
+            long low = word & LOW_BITS;
+            long high = word >>> 1 & LOW_BITS;
+            total += Long.bitCount(state == CONFIRMED ? low & high : low & ~high);
+        }
+        return total;
+    }
+
+    // Bits válidos da palavra: a última pode ter menos de 32 assentos
+    private long validMask(int index) {
+        int seats = Math.min(SEATS_PER_WORD, capacity - index * SEATS_PER_WORD);
+        return seats == SEATS_PER_WORD ? LOW_BITS : LOW_BITS & (1L << seats * 2) - 1;
+    }
+}
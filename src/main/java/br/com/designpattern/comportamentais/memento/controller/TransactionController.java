@@ -1,34 +1,90 @@
 package br.com.designpattern.comportamentais.memento.controller;
 
-import br.com.designpattern.comportamentais.memento.model.Transaction;
-import br.com.designpattern.comportamentais.memento.service.TransactionHistory;
+import br.com.designpattern.comportamentais.memento.service.TransactionStore;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
 @RestController("mementoTransactionController")
 @RequestMapping("/memento/api/transactions")
 public class TransactionController {
 
-    private final Transaction transaction = new Transaction("UserA", "UserB", 100.0);
-    private final TransactionHistory transactionHistory = new TransactionHistory();
+    // Transação usada pelos endpoints sem id, mantidos por compatibilidade
+    private static final String DEFAULT_ID = "default";
+
+    private final TransactionStore store;
+
+    public TransactionController(TransactionStore store) {
+        this.store = store;
+    }
+
+    @PostMapping
+    public String createTransaction(@RequestParam String sender,
+                                    @RequestParam String receiver,
+                                    @RequestParam Double amount) {
+        return store.create(sender, receiver, amount);
+    }
+
+    @PostMapping("/{id}/update")
+    public ResponseEntity<String> updateTransaction(@PathVariable("id") String id,
+                                                    @RequestParam String sender,
+                                                    @RequestParam String receiver,
+                                                    @RequestParam Double amount) {
+        return respond("Transaction updated: ", store.update(id, sender, receiver, amount));
+    }
+
+    @PostMapping("/{id}/undo")
+    public ResponseEntity<String> undoTransaction(@PathVariable("id") String id) {
+        return respond("Transaction reverted: ", store.undo(id));
+    }
+
+    // Ex.: POST /memento/api/transactions/{id}/restore?at=2024-05-01T12:00:00Z
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<String> restoreTransaction(@PathVariable("id") String id, @RequestParam("at") String at) {
+        Instant instant;
+        try {
+            instant = Instant.parse(at);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Instante inválido: " + at);
+        }
+        return respond("Transaction restored: ", store.restore(id, instant.toEpochMilli()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<String> getTransaction(@PathVariable("id") String id) {
+        return respond("Current transaction: ", store.get(id));
+    }
 
     @PostMapping("/update")
     public String updateTransaction(@RequestParam String sender,
                                     @RequestParam String receiver,
                                     @RequestParam Double amount) {
-        transactionHistory.save(transaction); // Salva o estado atual
-        transaction.setDetails(sender, receiver, amount);
-        return "Transaction updated: " + transaction.toString();
+        defaultTransaction();
+        return "Transaction updated: " + store.update(DEFAULT_ID, sender, receiver, amount);
     }
 
     @PostMapping("/undo")
     public String undoTransaction() {
-        transactionHistory.undo(transaction);
-        return "Transaction reverted: " + transaction.toString();
+        defaultTransaction();
+        return "Transaction reverted: " + store.undo(DEFAULT_ID);
     }
 
     @GetMapping
     public String getTransaction() {
-        return "Current transaction: " + transaction.toString();
+        defaultTransaction();
+        return "Current transaction: " + store.get(DEFAULT_ID);
+    }
+
+    private void defaultTransaction() {
+        store.createIfAbsent(DEFAULT_ID, "UserA", "UserB", 100.0);
     }
-}
 
+    private static ResponseEntity<String> respond(String message, String transaction) {
+        if (transaction == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(message + transaction);
+    }
+}
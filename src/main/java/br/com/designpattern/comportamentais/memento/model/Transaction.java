@@ -1,5 +1,7 @@
 package br.com.designpattern.comportamentais.memento.model;
 
+import java.util.Objects;
+
 public class Transaction {
     private String sender;
     private String receiver;
@@ -21,10 +23,34 @@ public class Transaction {
         return new TransactionMemento(sender, receiver, amount);
     }
 
+    // Memento delta: guarda o valor atual apenas dos campos que a atualização vai alterar
+    public TransactionMemento saveChanges(String sender, String receiver, Double amount) {
+        int fields = 0;
+        if (!Objects.equals(this.sender, sender)) {
+            fields |= TransactionMemento.SENDER;
+        }
+        if (!Objects.equals(this.receiver, receiver)) {
+            fields |= TransactionMemento.RECEIVER;
+        }
+        if (!Objects.equals(this.amount, amount)) {
+            fields |= TransactionMemento.AMOUNT;
+        }
+        return new TransactionMemento(fields,
+                (fields & TransactionMemento.SENDER) != 0 ? this.sender : null,
+                (fields & TransactionMemento.RECEIVER) != 0 ? this.receiver : null,
+                (fields & TransactionMemento.AMOUNT) != 0 ? this.amount : null);
+    }
+
     public void restore(TransactionMemento memento) {
-        this.sender = memento.getSender();
-        this.receiver = memento.getReceiver();
-        this.amount = memento.getAmount();
+        if (memento.contains(TransactionMemento.SENDER)) {
+            this.sender = memento.getSender();
+        }
+        if (memento.contains(TransactionMemento.RECEIVER)) {
+            this.receiver = memento.getReceiver();
+        }
+        if (memento.contains(TransactionMemento.AMOUNT)) {
+            this.amount = memento.getAmount();
+        }
     }
 
     @Override
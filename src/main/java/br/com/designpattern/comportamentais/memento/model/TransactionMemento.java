@@ -1,16 +1,37 @@
 package br.com.designpattern.comportamentais.memento.model;
 
+// Estado salvo de uma transação. Um memento delta guarda apenas os campos que mudaram;
+// os demais ficam fora de getFields() e não são alterados no restore.
 public class TransactionMemento {
+    public static final int SENDER = 1;
+    public static final int RECEIVER = 1 << 1;
+    public static final int AMOUNT = 1 << 2;
+    public static final int ALL = SENDER | RECEIVER | AMOUNT;
+
+    private final int fields;
     private final String sender;
     private final String receiver;
     private final Double amount;
 
     public TransactionMemento(String sender, String receiver, Double amount) {
+        this(ALL, sender, receiver, amount);
+    }
+
+    public TransactionMemento(int fields, String sender, String receiver, Double amount) {
+        this.fields = fields;
         this.sender = sender;
         this.receiver = receiver;
         this.amount = amount;
     }
 
+    public int getFields() {
+        return fields;
+    }
+
+    public boolean contains(int field) {
+        return (fields & field) != 0;
+    }
+
     public String getSender() {
         return sender;
     }
@@ -3,20 +3,132 @@ package br.com.designpattern.comportamentais.memento.service;
 import br.com.designpattern.comportamentais.memento.model.Transaction;
 import br.com.designpattern.comportamentais.memento.model.TransactionMemento;
 
-import java.util.Stack;
+import java.util.HashMap;
+import java.util.Map;
 
+// Histórico limitado em buffer circular: ao atingir a profundidade máxima, o estado mais antigo é descartado.
+// Os mementos são guardados em colunas (máscara de campos, sender, receiver e amount primitivo),
+// sem um objeto por entrada; campos que não mudaram não ocupam nada além do slot vazio.
+// Não é thread-safe: quem compartilha o histórico deve sincronizar o acesso.
 public class TransactionHistory {
-    private final Stack<TransactionMemento> history = new Stack<>();
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte AMOUNT_NULL = 1 << 3;
+
+    private final int depth;
+    private byte[] fields;
+    private String[] senders;
+    private String[] receivers;
+    private double[] amounts;
+    private int head; // próxima posição de escrita
+    private int size;
+    private long discarded;
+
+    public TransactionHistory(int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Profundidade deve ser positiva: " + depth);
+        }
+        this.depth = depth;
+        allocate(Math.min(depth, INITIAL_CAPACITY));
+    }
 
     public void save(Transaction transaction) {
-        history.push(transaction.save());
+        save(transaction.save());
     }
 
-    public void undo(Transaction transaction) {
-        if (!history.isEmpty()) {
-            transaction.restore(history.pop());
+    public void save(TransactionMemento memento) {
+        if (size == fields.length && fields.length < depth) {
+            resize(Math.min(depth, fields.length * 2));
+        }
+        byte mask = (byte) memento.getFields();
+        Double amount = memento.getAmount();
+        if (memento.contains(TransactionMemento.AMOUNT) && amount == null) {
+            mask |= AMOUNT_NULL;
+        }
+        fields[head] = mask;
+        senders[head] = memento.getSender();
+        receivers[head] = memento.getReceiver();
+        amounts[head] = amount == null ? 0 : amount;
+        head = (head + 1) % fields.length;
+        if (size == fields.length) {
+            discarded++;
         } else {
+            size++;
+        }
+    }
+
+    public boolean undo(Transaction transaction) {
+        if (size == 0) {
             System.out.println("No previous state to restore.");
+            return false;
         }
+        head = (head - 1 + fields.length) % fields.length;
+        size--;
+        byte mask = fields[head];
+        transaction.restore(new TransactionMemento(mask & TransactionMemento.ALL, senders[head], receivers[head],
+                (mask & AMOUNT_NULL) != 0 ? null : amounts[head]));
+        senders[head] = null;
+        receivers[head] = null;
+        return true;
+    }
+
+    // Compactação opcional: reaproveita uma única instância para strings iguais (os mesmos usuários se repetem
+    // no histórico) e reduz os arrays ao tamanho atual
+    public void compact() {
+        Map<String, String> canonical = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            int slot = slot(i);
+            if (senders[slot] != null) {
+                senders[slot] = canonical.computeIfAbsent(senders[slot], s -> s);
+            }
+            if (receivers[slot] != null) {
+                receivers[slot] = canonical.computeIfAbsent(receivers[slot], s -> s);
+            }
+        }
+        resize(Math.max(1, size));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    // Estados descartados por exceder a profundidade
+    public long getDiscarded() {
+        return discarded;
+    }
+
+    // Posição no array da i-ésima entrada, da mais antiga para a mais recente
+    private int slot(int i) {
+        return (head - size + i + 2 * fields.length) % fields.length;
+    }
+
+    private void resize(int capacity) {
+        byte[] oldFields = fields;
+        String[] oldSenders = senders;
+        String[] oldReceivers = receivers;
+        double[] oldAmounts = amounts;
+        int[] slots = new int[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = slot(i);
+        }
+        allocate(capacity);
+        for (int i = 0; i < slots.length; i++) {
+            fields[i] = oldFields[slots[i]];
+            senders[i] = oldSenders[slots[i]];
+            receivers[i] = oldReceivers[slots[i]];
+            amounts[i] = oldAmounts[slots[i]];
+        }
+        head = size % capacity;
+    }
+
+    private void allocate(int capacity) {
+        fields = new byte[capacity];
+        senders = new String[capacity];
+        receivers = new String[capacity];
+        amounts = new double[capacity];
     }
 }
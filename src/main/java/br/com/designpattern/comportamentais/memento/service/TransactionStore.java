@@ -0,0 +1,180 @@
+package br.com.designpattern.comportamentais.memento.service;
+
+import br.com.designpattern.comportamentais.memento.model.Transaction;
+import br.com.designpattern.comportamentais.memento.model.TransactionMemento;
+import br.com.designpattern.comportamentais.memento.snapshot.SnapshotLog;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Transações em edição, cada uma com o seu histórico. O acesso trava apenas a entrada da transação,
+// então atualizações de transações diferentes nunca disputam lock.
+// Entradas sem acesso há mais que o tempo de inatividade são removidas periodicamente.
+// Cada alteração grava um snapshot no SnapshotLog: uma transação removida (ou perdida num reinício) volta
+// a partir do último snapshot, e pode ser restaurada para qualquer instante dentro da retenção.
+@Component
+public class TransactionStore {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final SnapshotLog snapshots;
+    private final int historyDepth;
+    private final long idleNanos;
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "memento-store-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public TransactionStore(@Value("${memento.history.depth:100}") int historyDepth,
+                            @Value("${memento.store.idle-minutes:30}") long idleMinutes,
+                            SnapshotLog snapshots) {
+        this(historyDepth, Duration.ofMinutes(idleMinutes), snapshots);
+    }
+
+    public TransactionStore(int historyDepth, Duration idleTimeout, SnapshotLog snapshots) {
+        this.snapshots = snapshots;
+        this.historyDepth = historyDepth;
+        this.idleNanos = idleTimeout.toNanos();
+        long period = Math.max(1_000, idleTimeout.toMillis() / 4);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public String create(String sender, String receiver, Double amount) {
+        String id = UUID.randomUUID().toString();
+        Transaction transaction = new Transaction(sender, receiver, amount);
+        snapshots.append(id, transaction.save());
+        entries.put(id, newEntry(transaction));
+        return id;
+    }
+
+    // Cria a transação com o estado inicial se ela não existir nem no store nem nos snapshots
+    public void createIfAbsent(String id, String sender, String receiver, Double amount) {
+        entries.computeIfAbsent(id, key -> {
+            TransactionMemento latest = snapshots.latest(id);
+            if (latest != null) {
+                return newEntry(new Transaction(latest.getSender(), latest.getReceiver(), latest.getAmount()));
+            }
+            Transaction transaction = new Transaction(sender, receiver, amount);
+            snapshots.append(id, transaction.save());
+            return newEntry(transaction);
+        });
+    }
+
+    // Os métodos abaixo retornam o estado resultante ou null se a transação não existir
+
+    public String update(String id, String sender, String receiver, Double amount) {
+        return apply(id, entry -> {
+            entry.history.save(entry.transaction.saveChanges(sender, receiver, amount));
+            entry.transaction.setDetails(sender, receiver, amount);
+            snapshots.append(id, entry.transaction.save());
+            return entry.transaction.toString();
+        });
+    }
+
+    public String undo(String id) {
+        return apply(id, entry -> {
+            if (entry.history.undo(entry.transaction)) {
+                snapshots.append(id, entry.transaction.save());
+            }
+            return entry.transaction.toString();
+        });
+    }
+
+    // Volta a transação ao estado que ela tinha no instante informado; a restauração entra no histórico
+    // e pode ser desfeita como uma atualização comum
+    public String restore(String id, long epochMillis) {
+        TransactionMemento past = snapshots.restore(id, epochMillis);
+        if (past == null) {
+            return null;
+        }
+        return update(id, past.getSender(), past.getReceiver(), past.getAmount());
+    }
+
+    public String get(String id) {
+        return apply(id, entry -> entry.transaction.toString());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Remove as entradas inativas e retorna quantas foram removidas
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Entry entry : entries.values()) {
+            if (now - entry.lastAccessNanos <= idleNanos) {
+                continue;
+            }
+            synchronized (entry) {
+                // Confere de novo com a entrada travada: ela pode ter sido usada depois da primeira leitura
+                if (!entry.evicted && now - entry.lastAccessNanos > idleNanos) {
+                    entry.evicted = true;
+                    entries.values().remove(entry);
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    private <T> T apply(String id, Function<Entry, T> action) {
+        while (true) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                entry = reload(id);
+                if (entry == null) {
+                    return null;
+                }
+            }
+            synchronized (entry) {
+                // Removida enquanto esperava o lock: busca de novo (ou recriada, ou inexistente)
+                if (entry.evicted) {
+                    continue;
+                }
+                entry.lastAccessNanos = System.nanoTime();
+                return action.apply(entry);
+            }
+        }
+    }
+
+    // Recria a entrada a partir do último snapshot (o histórico de undo não é recuperado)
+    private Entry reload(String id) {
+        TransactionMemento latest = snapshots.latest(id);
+        if (latest == null) {
+            return null;
+        }
+        return entries.computeIfAbsent(id, key -> newEntry(new Transaction(latest.getSender(), latest.getReceiver(), latest.getAmount())));
+    }
+
+    private Entry newEntry(Transaction transaction) {
+        return new Entry(transaction, new TransactionHistory(historyDepth));
+    }
+
+    private static final class Entry {
+        private final Transaction transaction;
+        private final TransactionHistory history;
+        private volatile long lastAccessNanos = System.nanoTime();
+        private boolean evicted;
+
+        private Entry(Transaction transaction, TransactionHistory history) {
+            this.transaction = transaction;
+            this.history = history;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package br.com.designpattern.comportamentais.memento.snapshot;
+
+import br.com.designpattern.comportamentais.memento.model.TransactionMemento;
+import br.com.designpattern.comportamentais.shared.RecordCodec;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Snapshots das transações em segmentos append-only mapeados em memória, com um índice por transação
+// (timestamp -> posição) mantido em memória e reconstruído na inicialização.
+// Quando o segmento ativo enche, um novo é criado; os segmentos antigos são compactados em segundo plano,
+// mantendo os snapshots dentro da retenção e, de cada transação ainda alterada nela, o último snapshot anterior.
+// Uma transação sem snapshots dentro da retenção sai do disco e do índice.
+// append não usa lock global: o registro é montado pelo chamador e gravado numa faixa reservada com CAS;
+// só a troca do segmento cheio é serializada.
+@Component
+public class SnapshotLog {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final int MAX_STRING_BYTES = 1024;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long retentionMillis;
+    // Leituras x troca de segmentos da compactação; append não usa este lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rollLock = new ReentrantLock();
+    private final ConcurrentSkipListMap<Integer, SnapshotSegment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, TimeIndex> index = new ConcurrentHashMap<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "memento-snapshot-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong lastTimestamp = new AtomicLong();
+    private volatile SnapshotSegment active;
+
+    @Autowired
+    public SnapshotLog(@Value("${memento.snapshot.path:${java.io.tmpdir}/designpattern/memento-snapshots}") String directory,
+                       @Value("${memento.snapshot.segment-mb:16}") int segmentMegabytes,
+                       @Value("${memento.snapshot.retention-hours:168}") long retentionHours) {
+        this(Path.of(directory), segmentMegabytes * 1024 * 1024, Duration.ofHours(retentionHours));
+    }
+
+    public SnapshotLog(Path directory, int segmentBytes, Duration retention) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.retentionMillis = retention.toMillis();
+        try {
+            Files.createDirectories(directory);
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir os snapshots em " + directory, e);
+        }
+    }
+
+    // Grava o estado completo da transação e retorna o timestamp do snapshot
+    public long append(String transactionId, TransactionMemento state) {
+        byte[] id = RecordCodec.utf8(transactionId, MAX_STRING_BYTES);
+        byte[] sender = RecordCodec.utf8(state.getSender(), MAX_STRING_BYTES);
+        byte[] receiver = RecordCodec.utf8(state.getReceiver(), MAX_STRING_BYTES);
+        ByteBuffer record = ByteBuffer.allocate(8 + RecordCodec.fieldSize(id) + RecordCodec.fieldSize(sender)
+                + RecordCodec.fieldSize(receiver) + 8);
+        long timestamp = lastTimestamp.accumulateAndGet(System.currentTimeMillis(), Math::max);
+        record.putLong(timestamp);
+        RecordCodec.putField(record, id);
+        RecordCodec.putField(record, sender);
+        RecordCodec.putField(record, receiver);
+        record.putDouble(state.getAmount() != null ? state.getAmount() : Double.NaN);
+        record.flip();
+
+        while (true) {
+            SnapshotSegment segment = active;
+            segment.enter();
+            try {
+                int offset = segment.append(record, timestamp);
+                if (offset < 0) {
+                    roll(segment);
+                    continue;
+                }
+                long position = TimeIndex.position(segment.getNumber(), offset);
+                // Um índice descartado pela compactação neste instante é recriado
+                TimeIndex times;
+                while (!(times = index.computeIfAbsent(transactionId, key -> new TimeIndex())).add(timestamp, position)) {
+                    index.remove(transactionId, times);
+                }
+                return timestamp;
+            } finally {
+                // Só depois de publicada no índice: a compactação espera os writers do segmento saírem
+                segment.exit();
+            }
+        }
+    }
+
+    // Estado da transação no instante informado: busca binária no índice e uma leitura no segmento
+    public TransactionMemento restore(String transactionId, long epochMillis) {
+        lock.readLock().lock();
+        try {
+            TimeIndex times = index.get(transactionId);
+            long position = times == null ? -1 : times.floor(epochMillis);
+            if (position < 0) {
+                return null;
+            }
+            return segments.get(TimeIndex.segment(position)).read(TimeIndex.offset(position));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TransactionMemento latest(String transactionId) {
+        return restore(transactionId, Long.MAX_VALUE);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    // Compacta os segmentos fechados mais antigos que contêm snapshots fora da retenção.
+    // Retorna quantos snapshots foram descartados.
+    public int compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            return compactOldSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        compactor.shutdown();
+        lock.writeLock().lock();
+        try {
+            for (SnapshotSegment segment : segments.values()) {
+                segment.force();
+                segment.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.startsWith(PREFIX) && name.endsWith(COMPACT_SUFFIX)) {
+                // Sobra de uma compactação interrompida: os segmentos originais ainda valem
+                Files.delete(file);
+            } else if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                int number = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                SnapshotSegment segment = SnapshotSegment.open(file, number, segmentBytes);
+                segments.put(number, segment);
+            }
+        }
+        for (SnapshotSegment segment : segments.values()) {
+            segment.scan((offset, timestamp, id) -> index.computeIfAbsent(id, key -> new TimeIndex())
+                    .add(timestamp, TimeIndex.position(segment.getNumber(), offset)));
+            lastTimestamp.accumulateAndGet(segment.getLastTimestamp(), Math::max);
+        }
+        if (segments.isEmpty()) {
+            active = SnapshotSegment.open(path(1, SUFFIX), 1, segmentBytes);
+            segments.put(1, active);
+        } else {
+            active = segments.lastEntry().getValue();
+            segments.headMap(active.getNumber()).values().forEach(SnapshotSegment::seal);
+        }
+    }
+
+    // Troca o segmento ativo, se ele ainda for o que encheu; outros writers que encontraram o mesmo segmento cheio
+    // esperam aqui e gravam no novo
+    private void roll(SnapshotSegment full) {
+        rollLock.lock();
+        try {
+            if (active != full) {
+                return;
+            }
+            full.seal();
+            int number = full.getNumber() + 1;
+            SnapshotSegment next = SnapshotSegment.open(path(number, SUFFIX), number, segmentBytes);
+            segments.put(number, next);
+            active = next;
+        } finally {
+            rollLock.unlock();
+        }
+        compactor.execute(() -> {
+            full.force();
+            compact();
+        });
+    }
+
+    private int compactOldSegments() throws IOException {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        List<SnapshotSegment> old = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (SnapshotSegment segment : segments.values()) {
+                // Segmentos fechados e sem writers, do mais antigo ao mais novo, enquanto tiverem algo anterior à retenção
+                if (segment == active || !segment.isQuiescent() || segment.getFirstTimestamp() >= cutoff) {
+                    break;
+                }
+                old.add(segment);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (old.isEmpty()) {
+            return 0;
+        }
+
+        // Os segmentos fechados não mudam mais, então a cópia acontece sem lock; os novos arquivos reutilizam
+        // os números dos antigos e só substituem os originais no fim
+        List<SnapshotSegment> compacted = new ArrayList<>();
+        Map<String, Entries> entries = new HashMap<>();
+        int[] dropped = {0};
+        SnapshotSegment[] target = {null};
+        for (SnapshotSegment segment : old) {
+            segment.scan((offset, timestamp, id) -> {
+                long position = TimeIndex.position(segment.getNumber(), offset);
+                if (timestamp < cutoff && !isBaseline(index.get(id), position, cutoff)) {
+                    dropped[0]++;
+                    return;
+                }
+                int copied = target[0] == null ? -1 : target[0].copyFrom(segment, offset);
+                if (copied < 0) {
+                    target[0] = SnapshotSegment.open(path(old.get(compacted.size()).getNumber(), COMPACT_SUFFIX),
+                            old.get(compacted.size()).getNumber(), segmentBytes);
+                    compacted.add(target[0]);
+                    copied = target[0].copyFrom(segment, offset);
+                }
+                entries.computeIfAbsent(id, key -> new Entries()).add(timestamp, TimeIndex.position(target[0].getNumber(), copied));
+            });
+        }
+        if (dropped[0] == 0) {
+            compacted.forEach(SnapshotSegment::delete);
+            return 0;
+        }
+        for (SnapshotSegment segment : compacted) {
+            segment.force();
+        }
+
+        int lastCompacted = old.get(old.size() - 1).getNumber();
+        lock.writeLock().lock();
+        try {
+            for (SnapshotSegment segment : old) {
+                segments.remove(segment.getNumber());
+                segment.close();
+            }
+            for (SnapshotSegment segment : compacted) {
+                segment.moveTo(path(segment.getNumber(), SUFFIX));
+                segments.put(segment.getNumber(), segment);
+            }
+            for (SnapshotSegment segment : old.subList(compacted.size(), old.size())) {
+                segment.delete();
+            }
+            for (Map.Entry<String, TimeIndex> times : index.entrySet()) {
+                Entries replacement = entries.getOrDefault(times.getKey(), Entries.NONE);
+                if (!times.getValue().replaceCompacted(lastCompacted, replacement.timestamps, replacement.positions, replacement.size)) {
+                    index.remove(times.getKey(), times.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return dropped[0];
+    }
+
+    // O último snapshot anterior à retenção só é mantido se a transação foi alterada dentro dela:
+    // é o estado no início da janela. Sem alterações na retenção, a transação expira.
+    private static boolean isBaseline(TimeIndex times, long position, long cutoff) {
+        return times != null && times.floor(cutoff - 1) == position && times.lastTimestamp() >= cutoff;
+    }
+
+    private Path path(int number, String suffix) {
+        return directory.resolve(String.format(Locale.ROOT, "%s%08d%s", PREFIX, number, suffix));
+    }
+
+    // Novas posições de uma transação nos segmentos compactados
+    private static final class Entries {
+        private static final Entries NONE = new Entries();
+
+        private long[] timestamps = new long[4];
+        private long[] positions = new long[4];
+        private int size;
+
+        private void add(long timestamp, long position) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            timestamps[size] = timestamp;
+            positions[size++] = position;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.designpattern.comportamentais.memento.snapshot;
+
+import br.com.designpattern.comportamentais.memento.model.TransactionMemento;
+import br.com.designpattern.comportamentais.shared.RecordCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// Um arquivo de segmento mapeado em memória, com registros no formato do RecordCodec:
+//   payload: [long timestamp][short+bytes id][short+bytes sender][short+bytes receiver][double amount]
+// Tamanho 0 marca o fim do segmento; amount nulo é NaN.
+// Vários writers gravam ao mesmo tempo: cada um reserva a sua faixa com um CAS na posição e escreve nela sem lock.
+// As leituras usam apenas posições já publicadas no índice.
+final class SnapshotSegment {
+
+    private static final int HEADER_SIZE = RecordCodec.HEADER_SIZE;
+
+    private final int number;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger position = new AtomicInteger();
+    // Writers entre enter() e exit(): enquanto houver algum, o segmento não é compactado
+    private final AtomicInteger writers = new AtomicInteger();
+    private final AtomicLong firstTimestamp = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastTimestamp = new AtomicLong(Long.MIN_VALUE);
+    private Path path;
+
+    private SnapshotSegment(int number, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.number = number;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static SnapshotSegment open(Path path, int number, int capacity) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int size = (int) Math.max(capacity, channel.size());
+            SnapshotSegment segment = new SnapshotSegment(number, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segment.position.set(segment.scan((offset, timestamp, id) -> { }));
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o segmento de snapshots: " + path, e);
+        }
+    }
+
+    // Grava o payload e retorna o offset do registro, ou -1 se não houver espaço no segmento
+    int append(ByteBuffer payload, long timestamp) {
+        int size = HEADER_SIZE + payload.remaining();
+        int offset;
+        do {
+            offset = position.get();
+            if (offset + size > buffer.capacity()) {
+                return -1;
+            }
+        } while (!position.compareAndSet(offset, offset + size));
+        RecordCodec.write(buffer, offset, payload, new CRC32());
+        track(timestamp);
+        return offset;
+    }
+
+    // Um writer chama enter() antes de reservar espaço e exit() depois de publicar a posição no índice
+    void enter() {
+        writers.incrementAndGet();
+    }
+
+    void exit() {
+        writers.decrementAndGet();
+    }
+
+    // Impede novas reservas: chamado quando o segmento deixa de ser o ativo
+    void seal() {
+        position.set(buffer.capacity());
+    }
+
+    // Selado e sem writers: o conteúdo não muda mais
+    boolean isQuiescent() {
+        return writers.get() == 0;
+    }
+
+    // Copia um registro de outro segmento sem decodificá-lo (usado na compactação)
+    int copyFrom(SnapshotSegment source, int sourceOffset) {
+        int length = source.buffer.getInt(sourceOffset);
+        return append(source.buffer.slice(sourceOffset + HEADER_SIZE, length), source.buffer.getLong(sourceOffset + HEADER_SIZE));
+    }
+
+    TransactionMemento read(int offset) {
+        int cursor = offset + HEADER_SIZE + 8;
+        cursor = RecordCodec.skipField(buffer, cursor);
+        String sender = RecordCodec.getField(buffer, cursor);
+        cursor = RecordCodec.skipField(buffer, cursor);
+        String receiver = RecordCodec.getField(buffer, cursor);
+        cursor = RecordCodec.skipField(buffer, cursor);
+        double amount = buffer.getDouble(cursor);
+        return new TransactionMemento(sender, receiver, Double.isNaN(amount) ? null : amount);
+    }
+
+    // Percorre os registros válidos, atualiza o intervalo de timestamps e retorna a posição logo após o último
+    int scan(RecordVisitor visitor) {
+        CRC32 scanCrc = new CRC32();
+        int offset = 0;
+        int length;
+        while ((length = RecordCodec.validLength(buffer, offset, scanCrc)) > 0) {
+            long timestamp = buffer.getLong(offset + HEADER_SIZE);
+            track(timestamp);
+            visitor.visit(offset, timestamp, RecordCodec.getField(buffer, offset + HEADER_SIZE + 8));
+            offset += HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void moveTo(Path target) throws IOException {
+        Files.move(path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        path = target;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int getNumber() {
+        return number;
+    }
+
+    long getFirstTimestamp() {
+        return firstTimestamp.get();
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp.get();
+    }
+
+    private void track(long timestamp) {
+        firstTimestamp.accumulateAndGet(timestamp, Math::min);
+        lastTimestamp.accumulateAndGet(timestamp, Math::max);
+    }
+
+    interface RecordVisitor {
+        void visit(int offset, long timestamp, String transactionId);
+    }
+}
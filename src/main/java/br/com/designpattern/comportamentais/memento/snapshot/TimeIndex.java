@@ -0,0 +1,94 @@
+package br.com.designpattern.comportamentais.memento.snapshot;
+
+import java.util.Arrays;
+
+// Snapshots de uma transação em ordem de timestamp, com a posição de cada um (segmento << 32 | offset).
+// A restauração para um instante é uma busca binária aqui mais uma leitura no segmento.
+final class TimeIndex {
+
+    private long[] timestamps = new long[4];
+    private long[] positions = new long[4];
+    private int size;
+    // Descartado pela compactação (todos os snapshots fora da retenção): não aceita mais entradas
+    private boolean discarded;
+
+    static long position(int segment, int offset) {
+        return (long) segment << 32 | offset;
+    }
+
+    static int segment(long position) {
+        return (int) (position >>> 32);
+    }
+
+    static int offset(long position) {
+        return (int) position;
+    }
+
+    // Retorna false se o índice já foi descartado; quem grava cria um novo
+    synchronized boolean add(long timestamp, long position) {
+        if (discarded) {
+            return false;
+        }
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        // Normalmente chega em ordem; fora de ordem só na releitura após uma compactação interrompida
+        int index = size;
+        while (index > 0 && timestamps[index - 1] > timestamp) {
+            index--;
+        }
+        System.arraycopy(timestamps, index, timestamps, index + 1, size - index);
+        System.arraycopy(positions, index, positions, index + 1, size - index);
+        timestamps[index] = timestamp;
+        positions[index] = position;
+        size++;
+        return true;
+    }
+
+    // Posição do último snapshot com timestamp <= instante, ou -1 se não houver
+    synchronized long floor(long timestamp) {
+        int low = 0;
+        int high = size - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] <= timestamp) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found < 0 ? -1 : positions[found];
+    }
+
+    synchronized long lastTimestamp() {
+        return size == 0 ? Long.MIN_VALUE : timestamps[size - 1];
+    }
+
+    // Troca as entradas dos segmentos compactados (sempre as mais antigas) pelas novas posições.
+    // Retorna false quando não sobra nenhuma: o índice é descartado.
+    synchronized boolean replaceCompacted(int lastCompactedSegment, long[] newTimestamps, long[] newPositions, int count) {
+        int removed = 0;
+        while (removed < size && segment(positions[removed]) <= lastCompactedSegment) {
+            removed++;
+        }
+        int remaining = size - removed;
+        long[] timestampsAfter = new long[Math.max(4, count + remaining)];
+        long[] positionsAfter = new long[timestampsAfter.length];
+        System.arraycopy(newTimestamps, 0, timestampsAfter, 0, count);
+        System.arraycopy(newPositions, 0, positionsAfter, 0, count);
+        System.arraycopy(timestamps, removed, timestampsAfter, count, remaining);
+        System.arraycopy(positions, removed, positionsAfter, count, remaining);
+        timestamps = timestampsAfter;
+        positions = positionsAfter;
+        size = count + remaining;
+        discarded = size == 0;
+        return !discarded;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -4,19 +4,47 @@ import br.com.designpattern.comportamentais.observer.service.NotificationManager
 import br.com.designpattern.comportamentais.observer.domain.listeners.BuyerNotificationListener;
 import br.com.designpattern.comportamentais.observer.domain.listeners.InternalTeamNotificationListener;
 import br.com.designpattern.comportamentais.observer.domain.listeners.SellerNotificationListener;
+import br.com.designpattern.comportamentais.observer.service.dispatch.DeliveryOptions;
+import br.com.designpattern.comportamentais.observer.service.dispatch.OverflowPolicy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Configuration
 public class NotificationConfig {
 
     public NotificationConfig(NotificationManager notificationManager,
                               SellerNotificationListener sellerListener,
                               BuyerNotificationListener buyerListener,
-                              InternalTeamNotificationListener internalTeamListener) {
+                              InternalTeamNotificationListener internalTeamListener,
+                              @Value("${observer.spill.path:${java.io.tmpdir}/designpattern/observer-spill}") String spillPath) {
+        // Vendedor: lotes de até 500 eventos ou 50 ms, apenas com o estado mais recente de cada pedido
+        DeliveryOptions seller = new DeliveryOptions.Builder()
+                .partitions(4)
+                .queueCapacity(10_000)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .batch(500, Duration.ofMillis(50))
+                .coalesce(true)
+                .build();
+        // Comprador: entrega em ordem por pedido; com a fila cheia, quem publica espera
+        DeliveryOptions ordered = new DeliveryOptions.Builder()
+                .partitions(4)
+                .queueCapacity(10_000)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .build();
+        // Equipe interna (pager, pode ficar lento): o excedente vai para disco e nunca segura a criação de pedidos
+        DeliveryOptions pager = new DeliveryOptions.Builder()
+                .queueCapacity(1_000)
+                .overflowPolicy(OverflowPolicy.SPILL)
+                .spillDirectory(Path.of(spillPath))
+                .build();
+
         // Configurar assinaturas
-        notificationManager.subscribe("ORDER_CREATED", sellerListener);
-        notificationManager.subscribe("PAYMENT_APPROVED", sellerListener);
-        notificationManager.subscribe("ORDER_SHIPPED", buyerListener);
-        notificationManager.subscribe("PAYMENT_FAILED", internalTeamListener);
+        notificationManager.subscribe("ORDER_CREATED", sellerListener, seller);
+        notificationManager.subscribe("PAYMENT_APPROVED", sellerListener, seller);
+        notificationManager.subscribe("ORDER_SHIPPED", buyerListener, ordered);
+        notificationManager.subscribe("PAYMENT_FAILED", internalTeamListener, pager);
     }
 }
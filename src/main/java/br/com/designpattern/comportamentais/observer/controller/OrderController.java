@@ -1,17 +1,26 @@
 package br.com.designpattern.comportamentais.observer.controller;
 
+import br.com.designpattern.comportamentais.observer.service.NotificationManager;
 import br.com.designpattern.comportamentais.observer.service.OrderService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
 @RestController
 public class OrderController {
 
     private final OrderService orderService;
+    private final NotificationManager notificationManager;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, NotificationManager notificationManager) {
         this.orderService = orderService;
+        this.notificationManager = notificationManager;
     }
 
     @GetMapping("/observer/create-order")
@@ -37,4 +46,35 @@ public class OrderController {
         orderService.paymentFailed(orderId);
         return "Payment failed!";
     }
+
+    // Entregues, na fila, descartados, gravados em disco e com falha, por listener assíncrono
+    @GetMapping("/observer/listeners")
+    public Map<String, Map<String, Long>> listeners() {
+        return notificationManager.asyncStats();
+    }
+
+    // Último offset entregue em cada partição, por listener
+    @GetMapping("/observer/offsets")
+    public Map<String, long[]> offsets() {
+        return notificationManager.consumerOffsets();
+    }
+
+    // Ex.: POST /observer/admin/replay?listener=BuyerNotificationListener&from=2024-05-01T12:00:00Z&to=2024-05-01T13:00:00Z
+    @PostMapping("/observer/admin/replay")
+    public ResponseEntity<String> replay(@RequestParam String listener, @RequestParam String from, @RequestParam String to) {
+        Instant start;
+        Instant end;
+        try {
+            start = Instant.parse(from);
+            end = Instant.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Instante inválido: " + e.getParsedString());
+        }
+        try {
+            long replayed = notificationManager.replay(listener, start.toEpochMilli(), end.toEpochMilli());
+            return ResponseEntity.ok(replayed + " eventos reenviados para " + listener);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
@@ -4,6 +4,8 @@ public class Event {
     private String type;
     private String message;
     private Object data;
+    // Posição no log de eventos; -1 enquanto o evento não foi gravado
+    private long offset = -1;
 
     public Event(String type, String message, Object data) {
         this.type = type;
@@ -22,5 +24,13 @@ public class Event {
     public Object getData() {
         return data;
     }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
 }
 
@@ -1,13 +1,22 @@
 package br.com.designpattern.comportamentais.observer.domain.listeners;
 
 import br.com.designpattern.comportamentais.observer.domain.events.Event;
-import br.com.designpattern.comportamentais.observer.service.EventListener;
+import br.com.designpattern.comportamentais.observer.service.BatchEventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
-public class SellerNotificationListener implements EventListener {
+public class SellerNotificationListener implements BatchEventListener {
+    // Uma notificação para o vendedor por lote, com o estado mais recente de cada pedido
     @Override
-    public void update(Event event) {
-        System.out.println("Seller notified: " + event.getMessage() + " | Data: " + event.getData());
+    public void updateBatch(List<Event> events) {
+        if (events.size() == 1) {
+            Event event = events.get(0);
+            System.out.println("Seller notified: " + event.getMessage() + " | Data: " + event.getData());
+            return;
+        }
+        System.out.println("Seller notified of " + events.size() + " orders | Last: "
+                + events.get(events.size() - 1).getMessage() + " | Data: " + events.get(events.size() - 1).getData());
     }
 }
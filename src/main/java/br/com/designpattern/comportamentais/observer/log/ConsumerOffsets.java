@@ -0,0 +1,162 @@
+package br.com.designpattern.comportamentais.observer.log;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+// Offsets de consumo de cada listener, um arquivo por listener: [int partições][long offset]...
+// Os commits ficam em memória e são gravados a cada intervalo (e no encerramento), trocando o arquivo
+// de forma atômica. Após uma queda, a retomada pode reentregar os eventos do último intervalo (at-least-once).
+@Component
+public class ConsumerOffsets {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerOffsets.class);
+
+    private final Path directory;
+    private final long flushIntervalNanos;
+    private final Map<String, ListenerOffsets> listeners = new ConcurrentHashMap<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    @Autowired
+    public ConsumerOffsets(@Value("${observer.offsets.path:${java.io.tmpdir}/designpattern/observer-offsets}") String directory,
+                           @Value("${observer.offsets.flush-millis:1000}") long flushMillis) {
+        this(Path.of(directory), Duration.ofMillis(flushMillis));
+    }
+
+    public ConsumerOffsets(Path directory, Duration flushInterval) {
+        this.directory = directory;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir os offsets de consumo em " + directory, e);
+        }
+        this.flusher = new Thread(this::flushLoop, "observer-offsets-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // Offsets gravados do listener; um listener novo começa em initialOffset (só recebe eventos futuros).
+    // Se o número de partições mudou, todas começam no menor offset gravado, para não perder eventos.
+    public ListenerOffsets register(String listener, int partitions, long initialOffset) {
+        return listeners.computeIfAbsent(listener, name -> {
+            long[] stored = load(name);
+            long[] offsets = new long[partitions];
+            if (stored == null) {
+                Arrays.fill(offsets, initialOffset);
+            } else if (stored.length == partitions) {
+                offsets = stored;
+            } else {
+                Arrays.fill(offsets, Arrays.stream(stored).min().orElse(initialOffset));
+            }
+            ListenerOffsets registered = new ListenerOffsets(name, offsets);
+            if (stored == null || stored.length != partitions) {
+                registered.markDirty();
+            }
+            return registered;
+        });
+    }
+
+    public synchronized void flush() {
+        for (ListenerOffsets offsets : listeners.values()) {
+            long[] snapshot = offsets.takeIfDirty();
+            if (snapshot != null) {
+                try {
+                    write(offsets.getListener(), snapshot);
+                } catch (UncheckedIOException e) {
+                    offsets.markDirty();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        // unpark em vez de interrupt: interromper uma thread durante a escrita fecharia o FileChannel
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            try {
+                flush();
+            } catch (UncheckedIOException e) {
+                // Os offsets continuam em memória: o próximo intervalo tenta de novo
+                log.warn("Falha ao gravar offsets de consumo", e);
+            }
+        }
+    }
+
+    private long[] load(String listener) {
+        Path file = file(listener);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            long[] offsets = new long[buffer.getInt()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = buffer.getLong();
+            }
+            return offsets;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Grava em um arquivo temporário e o move sobre o anterior: uma queda no meio nunca deixa um arquivo incompleto
+    private void write(String listener, long[] offsets) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 * offsets.length);
+        buffer.putInt(offsets.length);
+        for (long offset : offsets) {
+            buffer.putLong(offset);
+        }
+        buffer.flip();
+        Path temp = directory.resolve(listener + ".offsets.tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temp, file(listener), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path file(String listener) {
+        return directory.resolve(listener + ".offsets");
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.designpattern.comportamentais.observer.log;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Offsets de um listener que já estão no log mas ainda não foram entregues, por partição.
+// Publicações concorrentes podem chegar à fila de uma partição fora da ordem dos offsets. Por isso o commit
+// de uma partição só avança até antes do menor offset pendente: nenhum offset abaixo do commit fica sem entrega.
+public final class DeliveryTracker {
+
+    private final ListenerOffsets offsets;
+    private final Partition[] partitions;
+
+    public DeliveryTracker(ListenerOffsets offsets) {
+        this.offsets = offsets;
+        this.partitions = new Partition[offsets.partitions()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+    }
+
+    // Chamado na ordem dos offsets (com o lock do log), antes de o evento ser entregue
+    public void track(int partition, long offset) {
+        Partition tracked = partitions[partition];
+        tracked.pending.add(offset);
+        tracked.lastTracked.accumulateAndGet(offset, Math::max);
+    }
+
+    // Chamado depois de cada evento entregue, com falha ou descartado pela política da fila
+    public void delivered(int partition, long offset) {
+        Partition tracked = partitions[partition];
+        tracked.pending.remove(offset);
+        // Lido antes do menor pendente: todo offset até lastTracked já estava em pending
+        long last = tracked.lastTracked.get();
+        Long lowest = tracked.pending.ceiling(Long.MIN_VALUE);
+        offsets.commit(partition, lowest == null ? last : Math.min(last, lowest - 1));
+    }
+
+    private static final class Partition {
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        private final AtomicLong lastTracked = new AtomicLong(-1);
+    }
+}
@@ -0,0 +1,419 @@
+package br.com.designpattern.comportamentais.observer.log;
+
+import br.com.designpattern.comportamentais.observer.domain.events.Event;
+import br.com.designpattern.comportamentais.shared.RecordCodec;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Log append-only e segmentado dos eventos publicados, gravado antes da entrega aos listeners.
+//
+// Cada segmento se chama events-<primeiro offset>.log, com registros no formato do RecordCodec:
+//   payload: [long offset][long timestamp][short+bytes tipo][short+bytes mensagem][short+bytes data]
+// Event.data é gravado como texto (o id do pedido); outros tipos são convertidos com String.valueOf.
+// O fsync é feito por uma thread própria (group commit): vários sync() concorrentes são atendidos pelo mesmo fsync.
+@Component
+public class EventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLog.class);
+
+    private static final String PREFIX = "events-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_SIZE = RecordCodec.HEADER_SIZE;
+    private static final int MAX_FIELD_BYTES = 16 * 1024;
+    private static final int MAX_RECORD_SIZE = 16 + 3 * (2 + MAX_FIELD_BYTES);
+    private static final AppendCallback<Void> NO_CALLBACK = (event, offset) -> null;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long retentionMillis;
+    // Primeiro offset de cada segmento -> arquivo
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    // Horário do primeiro evento de cada segmento -> primeiro offset dele, para o replay por intervalo de tempo
+    private final ConcurrentSkipListMap<Long, Long> segmentStarts = new ConcurrentSkipListMap<>();
+    // Primeiro offset que algum consumidor ainda não recebeu: a retenção não apaga segmentos a partir dele
+    private volatile LongSupplier retentionFloor = () -> Long.MAX_VALUE;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingFlush = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    // Direto: a gravação no canal não precisa copiar o registro para um buffer temporário
+    private final ByteBuffer scratch = ByteBuffer.allocateDirect(HEADER_SIZE + MAX_RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+
+    private FileChannel channel;
+    private long segmentPosition;
+    private long nextOffset;
+    private long written;
+    private long durable;
+    private boolean closed;
+    // Primeira falha de escrita ou fsync: depois dela o log não aceita mais eventos e sync() lança a exceção
+    private IOException failure;
+
+    @Autowired
+    public EventLog(@Value("${observer.log.path:${java.io.tmpdir}/designpattern/observer-events}") String directory,
+                    @Value("${observer.log.segment-mb:64}") int segmentMegabytes,
+                    @Value("${observer.log.retention-hours:168}") long retentionHours) {
+        this(Path.of(directory), segmentMegabytes * 1024L * 1024L, Duration.ofHours(retentionHours));
+    }
+
+    public EventLog(Path directory, long segmentBytes, Duration retention) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.retentionMillis = retention.toMillis();
+        try {
+            Files.createDirectories(directory);
+            openAtEnd();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o log de eventos em " + directory, e);
+        }
+
+        this.flusher = new Thread(this::flushLoop, "observer-event-log-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // Grava o evento (ainda não durável), atribui a ele o próximo offset e retorna esse offset
+    public long append(Event event) {
+        append(event, NO_CALLBACK);
+        return event.getOffset();
+    }
+
+    // Como append(Event), chamando onAppended com o lock do log (as chamadas acontecem na ordem dos offsets)
+    // e devolvendo o resultado dele. Os textos são codificados direto no buffer do registro: com um callback
+    // criado uma única vez, gravar um evento não aloca nada.
+    public <T> T append(Event event, AppendCallback<T> onAppended) {
+        Object data = event.getData();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Log de eventos encerrado");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Log de eventos indisponível após falha de escrita", failure);
+            }
+            long offset = nextOffset;
+            scratch.clear();
+            scratch.position(HEADER_SIZE);
+            long timestamp = System.currentTimeMillis();
+            scratch.putLong(offset).putLong(timestamp);
+            RecordCodec.putField(scratch, event.getType(), MAX_FIELD_BYTES);
+            RecordCodec.putField(scratch, event.getMessage(), MAX_FIELD_BYTES);
+            RecordCodec.putField(scratch, data == null ? null : String.valueOf(data), MAX_FIELD_BYTES);
+            RecordCodec.seal(scratch, crc);
+
+            if (segmentPosition > 0 && segmentPosition + scratch.remaining() > segmentBytes) {
+                roll(offset);
+            }
+            if (segmentPosition == 0) {
+                segmentStarts.putIfAbsent(timestamp, offset);
+            }
+            while (scratch.hasRemaining()) {
+                segmentPosition += channel.write(scratch, segmentPosition);
+            }
+            // O offset só é consumido depois da gravação: uma falha não deixa buracos na sequência
+            nextOffset++;
+            written++;
+            event.setOffset(offset);
+            return onAppended.appended(event, offset);
+        } catch (IOException e) {
+            // Um registro pode ter ficado pela metade: o log para de aceitar escritas e quem espera o fsync é avisado
+            failure = e;
+            flushed.signalAll();
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Group commit: espera até que tudo que foi gravado antes desta chamada esteja em disco
+    public void sync() {
+        lock.lock();
+        try {
+            long target = written;
+            pendingFlush.signal();
+            while (durable < target && !closed && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durable < target && failure != null) {
+                throw new UncheckedIOException("fsync do log de eventos falhou", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long nextOffset() {
+        lock.lock();
+        try {
+            return nextOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Entrega, em ordem, os eventos a partir do offset informado que já estavam gravados no início da leitura
+    public void read(long fromOffset, EventVisitor visitor) {
+        read(fromOffset, Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+
+    // Entrega, em ordem, os eventos gravados no intervalo de tempo [de, até].
+    // A leitura começa no último segmento iniciado até "de", sem percorrer os anteriores.
+    public void readRange(long fromMillis, long toMillis, EventVisitor visitor) {
+        Map.Entry<Long, Long> start = segmentStarts.floorEntry(fromMillis);
+        read(start == null ? Long.MIN_VALUE : start.getValue(), fromMillis, toMillis, visitor);
+    }
+
+    // Informa o primeiro offset ainda necessário aos consumidores (ex.: o menor offset confirmado + 1)
+    public void retainFrom(LongSupplier firstNeededOffset) {
+        this.retentionFloor = firstNeededOffset;
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            pendingFlush.signal();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+            channel.force(false);
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void read(long fromOffset, long fromMillis, long toMillis, EventVisitor visitor) {
+        long endOffset;
+        List<Path> files;
+        lock.lock();
+        try {
+            endOffset = nextOffset;
+            Long first = segments.floorKey(fromOffset);
+            files = List.copyOf((first == null ? segments : segments.tailMap(first, true)).values());
+        } finally {
+            lock.unlock();
+        }
+
+        for (Path file : files) {
+            if (!readSegment(file, fromOffset, endOffset, fromMillis, toMillis, visitor)) {
+                return;
+            }
+        }
+    }
+
+    // Retorna false quando a leitura terminou (fim do intervalo ou dos registros existentes no início da leitura)
+    private boolean readSegment(Path file, long fromOffset, long endOffset, long fromMillis, long toMillis, EventVisitor visitor) {
+        try {
+            return scan(file, (offset, timestamp, payload) -> {
+                if (offset >= endOffset || timestamp > toMillis) {
+                    return false;
+                }
+                if (offset >= fromOffset && timestamp >= fromMillis) {
+                    Event event = new Event(RecordCodec.getField(payload), RecordCodec.getField(payload), RecordCodec.getField(payload));
+                    event.setOffset(offset);
+                    visitor.visit(offset, timestamp, event);
+                }
+                return true;
+            }) >= 0;
+        } catch (NoSuchFileException e) {
+            // Segmento removido pela retenção durante a leitura
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Percorre os registros válidos do segmento (mapeado só para leitura) e retorna a posição logo após o último,
+    // ou -1 se o visitor interrompeu a leitura. Um registro incompleto ou com CRC diferente encerra o segmento.
+    private static long scan(Path file, RecordVisitor visitor) throws IOException {
+        try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = reader.map(FileChannel.MapMode.READ_ONLY, 0, reader.size());
+            CRC32 readCrc = new CRC32();
+            int position = 0;
+            int length;
+            while ((length = RecordCodec.validLength(buffer, position, readCrc)) > 0) {
+                ByteBuffer payload = buffer.slice(position + HEADER_SIZE, length);
+                long offset = payload.getLong();
+                long timestamp = payload.getLong();
+                if (!visitor.visit(offset, timestamp, payload)) {
+                    return -1;
+                }
+                position += HEADER_SIZE + length;
+            }
+            return position;
+        }
+    }
+
+    private void openAtEnd() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().startsWith(PREFIX)
+                    && path.getFileName().toString().endsWith(SUFFIX)).toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long firstOffset = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            segments.put(firstOffset, file);
+            long firstTimestamp = firstTimestamp(file);
+            if (firstTimestamp >= 0) {
+                segmentStarts.merge(firstTimestamp, firstOffset, Math::min);
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, segmentPath(0));
+        }
+
+        // Só o último segmento precisa ser percorrido: ele define o próximo offset e onde continuar a escrita
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        nextOffset = last.getKey();
+        channel = FileChannel.open(last.getValue(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Descarta um registro incompleto no fim (escrita interrompida): o próximo append começa após o último válido
+        segmentPosition = scan(last.getValue(), (offset, timestamp, payload) -> {
+            nextOffset = offset + 1;
+            return true;
+        });
+        channel.truncate(segmentPosition);
+    }
+
+    // Fecha o segmento atual (com fsync) e abre um novo começando no offset informado
+    private void roll(long firstOffset) throws IOException {
+        channel.force(false);
+        channel.close();
+        durable = written;
+        flushed.signalAll();
+
+        Path path = segmentPath(firstOffset);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.put(firstOffset, path);
+        segmentPosition = 0;
+        deleteExpired();
+    }
+
+    // Retenção por idade: remove segmentos fechados cujo arquivo não é alterado há mais que o período de retenção
+    // Um segmento com eventos que algum consumidor ainda não recebeu é mantido além da retenção
+    private void deleteExpired() throws IOException {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        long floor = retentionFloor.getAsLong();
+        for (Map.Entry<Long, Path> segment : segments.headMap(segments.lastKey()).entrySet()) {
+            if (Files.getLastModifiedTime(segment.getValue()).toMillis() >= cutoff) {
+                break;
+            }
+            // O segmento vai do seu primeiro offset até o primeiro offset do seguinte (exclusive)
+            if (segments.higherKey(segment.getKey()) > floor) {
+                log.warn("Segmento {} mantido além da retenção: há listeners atrasados (offset {})",
+                        segment.getValue().getFileName(), floor);
+                break;
+            }
+            segments.remove(segment.getKey());
+            segmentStarts.values().remove(segment.getKey());
+            Files.deleteIfExists(segment.getValue());
+        }
+    }
+
+    // Horário do primeiro registro do segmento, ou -1 se ele estiver vazio
+    private static long firstTimestamp(Path file) throws IOException {
+        try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_SIZE + 16);
+            if (reader.read(head, 0) < head.capacity() || head.getInt(0) <= 0) {
+                return -1;
+            }
+            return head.getLong(HEADER_SIZE + 8);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            FileChannel toFlush;
+            long target;
+            lock.lock();
+            try {
+                while (written == durable && !closed) {
+                    pendingFlush.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                toFlush = channel;
+                target = written;
+            } finally {
+                lock.unlock();
+            }
+
+            // fsync fora do lock: novos eventos continuam sendo gravados enquanto o disco trabalha
+            try {
+                toFlush.force(false);
+            } catch (ClosedChannelException e) {
+                // O segmento foi fechado por roll(), que já fez o fsync dele
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                log.warn("Falha no fsync do log de eventos; novas escritas serão recusadas", e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                durable = Math.max(durable, target);
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Path segmentPath(long firstOffset) {
+        return directory.resolve(String.format(Locale.ROOT, "%s%020d%s", PREFIX, firstOffset, SUFFIX));
+    }
+
+    @FunctionalInterface
+    public interface AppendCallback<T> {
+        T appended(Event event, long offset);
+    }
+
+    @FunctionalInterface
+    public interface EventVisitor {
+        void visit(long offset, long timestamp, Event event);
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        // payload posicionado logo após o offset e o timestamp; retorna false para parar a leitura
+        boolean visit(long offset, long timestamp, ByteBuffer payload);
+    }
+}
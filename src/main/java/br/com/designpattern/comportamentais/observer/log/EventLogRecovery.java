@@ -0,0 +1,29 @@
+package br.com.designpattern.comportamentais.observer.log;
+
+import br.com.designpattern.comportamentais.observer.config.NotificationConfig;
+import br.com.designpattern.comportamentais.observer.service.NotificationManager;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Na inicialização, reentrega a cada listener os eventos gravados depois do seu último offset.
+// Depende da configuração para que as assinaturas já existam quando a retomada começar.
+@Component
+public class EventLogRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLogRecovery.class);
+
+    private final NotificationManager notificationManager;
+
+    public EventLogRecovery(NotificationManager notificationManager, NotificationConfig notificationConfig) {
+        this.notificationManager = notificationManager;
+    }
+
+    @PostConstruct
+    public void recover() {
+        long start = System.nanoTime();
+        long resumed = notificationManager.resume();
+        log.info("{} eventos reentregues aos listeners em {} ms", resumed, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.designpattern.comportamentais.observer.log;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Último offset entregue em cada partição de um listener. Só avança: um commit atrasado (ex.: de um replay) é ignorado.
+public final class ListenerOffsets {
+
+    private final String listener;
+    private final AtomicLongArray committed;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    ListenerOffsets(String listener, long[] offsets) {
+        this.listener = listener;
+        this.committed = new AtomicLongArray(offsets);
+    }
+
+    public void commit(int partition, long offset) {
+        long current = committed.get(partition);
+        while (offset > current) {
+            long witness = committed.compareAndExchange(partition, current, offset);
+            if (witness == current) {
+                dirty.set(true);
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    public long get(int partition) {
+        return committed.get(partition);
+    }
+
+    // Menor offset entregue entre as partições: a retomada começa logo depois dele
+    public long min() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < committed.length(); i++) {
+            min = Math.min(min, committed.get(i));
+        }
+        return min;
+    }
+
+    public int partitions() {
+        return committed.length();
+    }
+
+    public String getListener() {
+        return listener;
+    }
+
+    // Cópia dos offsets, se mudaram desde a última chamada
+    long[] takeIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return null;
+        }
+        long[] offsets = new long[committed.length()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = committed.get(i);
+        }
+        return offsets;
+    }
+
+    void markDirty() {
+        dirty.set(true);
+    }
+}
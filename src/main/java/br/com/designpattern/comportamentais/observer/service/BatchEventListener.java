@@ -0,0 +1,17 @@
+package br.com.designpattern.comportamentais.observer.service;
+
+import br.com.designpattern.comportamentais.observer.domain.events.Event;
+
+import java.util.List;
+
+// Listener que processa vários eventos de uma vez (ex.: uma única chamada ao serviço de notificação).
+// Com entrega assíncrona em lote, o PartitionedListener chama updateBatch; nas demais, cada evento vira um lote de 1.
+public interface BatchEventListener extends EventListener {
+
+    void updateBatch(List<Event> events);
+
+    @Override
+    default void update(Event event) {
+        updateBatch(List.of(event));
+    }
+}
@@ -1,35 +1,297 @@
 package br.com.designpattern.comportamentais.observer.service;
 
 import br.com.designpattern.comportamentais.observer.domain.events.Event;
+import br.com.designpattern.comportamentais.observer.log.ConsumerOffsets;
+import br.com.designpattern.comportamentais.observer.log.DeliveryTracker;
+import br.com.designpattern.comportamentais.observer.log.EventLog;
+import br.com.designpattern.comportamentais.observer.log.ListenerOffsets;
+import br.com.designpattern.comportamentais.observer.service.dispatch.DeliveryOptions;
+import br.com.designpattern.comportamentais.observer.service.dispatch.PartitionedListener;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
+// Registro copy-on-write: cada tipo de evento aponta para um array imutável de listeners.
+// Assinar ou cancelar troca o array inteiro (atomicamente por tipo); notify só lê o array atual,
+// sem lock e sem alocar nada (sem log), e nunca vê um registro pela metade.
+// Com o EventLog, cada evento é gravado (com fsync em group commit) antes de ser entregue, e cada listener
+// guarda, por partição, o offset até o qual todos os eventos já foram entregues. Na inicialização, resume()
+// reentrega o que ficou para trás, e replay() reenvia um intervalo de tempo a um listener.
+// Não há ordem global de entrega: cada publicador entrega o seu evento assim que o fsync termina.
 @Component
 public class NotificationManager {
 
-    private final Map<String, List<EventListener>> listeners = new HashMap<>();
+    private static final EventListener[] NONE = new EventListener[0];
+
+    private final Map<String, EventListener[]> listeners = new ConcurrentHashMap<>();
+    // Um único despachante assíncrono por listener, compartilhado por todos os tipos de evento que ele assina,
+    // para que os eventos de um mesmo pedido cheguem em ordem mesmo quando são de tipos diferentes.
+    // Os listeners não sobrescrevem equals, então a chave funciona por identidade.
+    private final Map<EventListener, PartitionedListener> asyncListeners = new ConcurrentHashMap<>();
+
+    // null quando o manager é criado sem log (ex.: benchmarks): a entrega é só em memória
+    private final EventLog eventLog;
+    private final ConsumerOffsets consumerOffsets;
+    // Listener assinado -> o que está nos arrays de listeners (o despachante assíncrono ou o wrapper que registra o offset)
+    private final Map<EventListener, Durable> durableListeners = new ConcurrentHashMap<>();
+    // O mesmo registro, pela entrada dos arrays de listeners
+    private final Map<EventListener, Durable> durableTargets = new ConcurrentHashMap<>();
+    private final Map<String, Durable> durableByName = new ConcurrentHashMap<>();
+    // Criado uma única vez: o notify com log não aloca um callback por evento
+    private final EventLog.AppendCallback<EventListener[]> tracker = this::track;
+
+    public NotificationManager() {
+        this(null, null);
+    }
+
+    @Autowired
+    public NotificationManager(EventLog eventLog, ConsumerOffsets consumerOffsets) {
+        this.eventLog = eventLog;
+        this.consumerOffsets = consumerOffsets;
+        if (eventLog != null) {
+            eventLog.retainFrom(this::firstNeededOffset);
+        }
+    }
 
     public void subscribe(String eventType, EventListener listener) {
-        listeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(listener);
+        if (eventLog != null) {
+            Durable durable = durableListeners.computeIfAbsent(listener, l -> {
+                OffsetTrackingListener tracking = new OffsetTrackingListener(l);
+                Durable registered = register(l, tracking, 1, event -> 0);
+                tracking.tracker = registered.tracker;
+                return registered;
+            });
+            durable.types.add(eventType);
+            add(eventType, durable.target);
+            return;
+        }
+        add(eventType, listener);
     }
 
+    private void add(String eventType, EventListener listener) {
+        listeners.compute(eventType, (type, current) -> {
+            EventListener[] users = current == null ? NONE : current;
+            EventListener[] updated = Arrays.copyOf(users, users.length + 1);
+            updated[users.length] = listener;
+            return updated;
+        });
+    }
+
+    // Assinatura assíncrona: o listener é chamado pelas threads das suas partições, não por quem publica
+    public void subscribe(String eventType, EventListener listener, DeliveryOptions options) {
+        PartitionedListener async = asyncListeners.computeIfAbsent(listener,
+                l -> new PartitionedListener(l.getClass().getSimpleName(), l, options));
+        if (eventLog != null) {
+            Durable durable = durableListeners.computeIfAbsent(listener, l -> {
+                Durable registered = register(l, async, async.getPartitions(), async::partitionOf);
+                async.onDelivered(registered.tracker::delivered);
+                return registered;
+            });
+            durable.types.add(eventType);
+        }
+        add(eventType, async);
+    }
+
+    // Remove a assinatura (síncrona ou assíncrona) do listener para o tipo de evento
     public void unsubscribe(String eventType, EventListener listener) {
-        List<EventListener> users = listeners.get(eventType);
-        if (users != null) {
-            users.remove(listener);
+        PartitionedListener async = asyncListeners.get(listener);
+        Durable durable = durableListeners.get(listener);
+        if (durable != null) {
+            durable.types.remove(eventType);
         }
+        listeners.computeIfPresent(eventType, (type, users) -> {
+            int index = indexOf(users, listener);
+            if (index < 0 && async != null) {
+                index = indexOf(users, async);
+            }
+            if (index < 0 && durable != null) {
+                index = indexOf(users, durable.target);
+            }
+            if (index < 0) {
+                return users;
+            }
+            if (users.length == 1) {
+                return null;
+            }
+            EventListener[] updated = new EventListener[users.length - 1];
+            System.arraycopy(users, 0, updated, 0, index);
+            System.arraycopy(users, index + 1, updated, index, users.length - index - 1);
+            return updated;
+        });
     }
 
     public void notify(Event event) {
-        List<EventListener> users = listeners.get(event.getType());
+        if (eventLog == null) {
+            dispatch(event, listeners.get(event.getType()));
+            return;
+        }
+        // Os destinatários são lidos e marcados como pendentes com o lock do log, na ordem dos offsets.
+        // Se o fsync falhar, o evento continua pendente e volta na retomada (at-least-once).
+        EventListener[] users = eventLog.append(event, tracker);
+        eventLog.sync();
+        dispatch(event, users);
+    }
+
+    // Reentrega a cada listener os eventos gravados depois do último offset entregue em cada partição
+    public long resume() {
+        long resumed = 0;
+        for (Durable durable : durableByName.values()) {
+            long[] count = {0};
+            ListenerOffsets offsets = durable.offsets;
+            eventLog.read(offsets.min() + 1, (offset, timestamp, event) -> {
+                int partition = durable.partitionOf.applyAsInt(event);
+                if (durable.types.contains(event.getType()) && offset > offsets.get(partition)) {
+                    // Roda antes do tráfego novo, então os offsets são marcados em ordem crescente
+                    durable.tracker.track(partition, offset);
+                    durable.target.update(event);
+                    count[0]++;
+                }
+            });
+            resumed += count[0];
+        }
+        return resumed;
+    }
+
+    // Reenvia ao listener os eventos dos tipos que ele assina gravados no intervalo [de, até]
+    public long replay(String listenerName, long fromMillis, long toMillis) {
+        if (eventLog == null) {
+            throw new IllegalStateException("Log de eventos desativado");
+        }
+        Durable durable = durableByName.get(listenerName);
+        if (durable == null) {
+            throw new IllegalArgumentException("Listener desconhecido: " + listenerName);
+        }
+        long[] count = {0};
+        eventLog.readRange(fromMillis, toMillis, (offset, timestamp, event) -> {
+            if (durable.types.contains(event.getType())) {
+                durable.target.update(event);
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    // Offsets entregues por listener e partição
+    public Map<String, long[]> consumerOffsets() {
+        Map<String, long[]> offsets = new LinkedHashMap<>();
+        for (Durable durable : durableByName.values()) {
+            long[] partitions = new long[durable.offsets.partitions()];
+            for (int i = 0; i < partitions.length; i++) {
+                partitions[i] = durable.offsets.get(i);
+            }
+            offsets.put(durable.offsets.getListener(), partitions);
+        }
+        return offsets;
+    }
+
+    // Primeiro offset que algum listener ainda não recebeu em todas as partições
+    private long firstNeededOffset() {
+        long first = Long.MAX_VALUE;
+        for (Durable durable : durableByName.values()) {
+            first = Math.min(first, durable.offsets.min() + 1);
+        }
+        return first;
+    }
+
+    private EventListener[] track(Event event, long offset) {
+        EventListener[] users = listeners.get(event.getType());
+        if (users != null) {
+            for (EventListener user : users) {
+                Durable durable = durableTargets.get(user);
+                if (durable != null) {
+                    durable.tracker.track(durable.partitionOf.applyAsInt(event), offset);
+                }
+            }
+        }
+        return users;
+    }
+
+    private static void dispatch(Event event, EventListener[] users) {
         if (users != null) {
             for (EventListener listener : users) {
                 listener.update(event);
             }
         }
     }
+
+    public Map<String, Map<String, Long>> asyncStats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        for (PartitionedListener async : asyncListeners.values()) {
+            stats.put(async.getDelegate().getClass().getSimpleName(), async.stats());
+        }
+        return stats;
+    }
+
+    private Durable register(EventListener listener, EventListener target, int partitions, ToIntFunction<Event> partitionOf) {
+        String name = listener.getClass().getSimpleName();
+        // Um listener novo começa no fim do log: recebe só os eventos publicados a partir de agora
+        ListenerOffsets offsets = consumerOffsets.register(name, partitions, eventLog.nextOffset() - 1);
+        Durable durable = new Durable(target, offsets, partitionOf);
+        if (durableByName.putIfAbsent(name, durable) != null) {
+            throw new IllegalArgumentException("Já existe um listener com o nome " + name);
+        }
+        durableTargets.put(target, durable);
+        return durable;
+    }
+
+    private static int indexOf(EventListener[] users, EventListener listener) {
+        for (int i = 0; i < users.length; i++) {
+            if (users[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (PartitionedListener async : asyncListeners.values()) {
+            async.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class Durable {
+        private final EventListener target;
+        private final ListenerOffsets offsets;
+        private final DeliveryTracker tracker;
+        private final ToIntFunction<Event> partitionOf;
+        private final Set<String> types = ConcurrentHashMap.newKeySet();
+
+        private Durable(EventListener target, ListenerOffsets offsets, ToIntFunction<Event> partitionOf) {
+            this.target = target;
+            this.offsets = offsets;
+            this.tracker = new DeliveryTracker(offsets);
+            this.partitionOf = partitionOf;
+        }
+    }
+
+    // Listener síncrono: entregue na thread de quem publica, com uma única partição
+    private static final class OffsetTrackingListener implements EventListener {
+        private final EventListener delegate;
+        private DeliveryTracker tracker;
+
+        private OffsetTrackingListener(EventListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void update(Event event) {
+            try {
+                delegate.update(event);
+            } finally {
+                // Como no assíncrono, um evento com falha conta como entregue; a exceção segue para quem publicou
+                if (event.getOffset() >= 0) {
+                    tracker.delivered(0, event.getOffset());
+                }
+            }
+        }
+    }
 }
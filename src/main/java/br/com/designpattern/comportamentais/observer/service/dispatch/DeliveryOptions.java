@@ -0,0 +1,108 @@
+package br.com.designpattern.comportamentais.observer.service.dispatch;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Configuração da entrega assíncrona de um listener
+public class DeliveryOptions {
+    private final int partitions;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spillDirectory;
+    private final int batchSize;
+    private final Duration batchWindow;
+    private final boolean coalesce;
+
+    private DeliveryOptions(Builder builder) {
+        this.partitions = builder.partitions;
+        this.queueCapacity = builder.queueCapacity;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.spillDirectory = builder.spillDirectory;
+        this.batchSize = builder.batchSize;
+        this.batchWindow = builder.batchWindow;
+        this.coalesce = builder.coalesce;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Duration getBatchWindow() {
+        return batchWindow;
+    }
+
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    public static class Builder {
+        private int partitions = 1;
+        private int queueCapacity = 1_000;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private Path spillDirectory;
+        private int batchSize = 1;
+        private Duration batchWindow = Duration.ZERO;
+        private boolean coalesce;
+
+        // Eventos com o mesmo Event.data vão sempre para a mesma partição e são entregues em ordem
+        public Builder partitions(int partitions) {
+            this.partitions = partitions;
+            return this;
+        }
+
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        public Builder spillDirectory(Path spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        // Só vale para BatchEventListener: o lote fecha ao atingir o tamanho ou quando a janela,
+        // contada a partir do primeiro evento do lote, termina
+        public Builder batch(int batchSize, Duration batchWindow) {
+            this.batchSize = batchSize;
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        // Dentro de um lote, mantém apenas o último evento de cada pedido (Event.data)
+        public Builder coalesce(boolean coalesce) {
+            this.coalesce = coalesce;
+            return this;
+        }
+
+        public DeliveryOptions build() {
+            if (partitions <= 0 || queueCapacity <= 0 || batchSize <= 0) {
+                throw new IllegalArgumentException("Partições, capacidade da fila e tamanho do lote devem ser positivos");
+            }
+            if (overflowPolicy == OverflowPolicy.SPILL && spillDirectory == null) {
+                throw new IllegalArgumentException("A política SPILL exige um diretório para o excedente");
+            }
+            return new DeliveryOptions(this);
+        }
+    }
+}
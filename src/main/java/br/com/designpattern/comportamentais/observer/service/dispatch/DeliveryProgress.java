@@ -0,0 +1,7 @@
+package br.com.designpattern.comportamentais.observer.service.dispatch;
+
+// Avisado depois de cada evento entregue, com falha ou descartado pela política da fila, com o offset dele no log
+@FunctionalInterface
+public interface DeliveryProgress {
+    void delivered(int partition, long offset);
+}
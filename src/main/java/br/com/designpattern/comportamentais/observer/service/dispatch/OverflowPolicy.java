@@ -0,0 +1,11 @@
+package br.com.designpattern.comportamentais.observer.service.dispatch;
+
+// O que fazer quando a fila de uma partição está cheia
+public enum OverflowPolicy {
+    // Quem publica espera até haver espaço (backpressure)
+    BLOCK,
+    // Descarta o evento mais antigo da partição para aceitar o novo
+    DROP_OLDEST,
+    // Grava o excedente em um arquivo local, entregue depois na mesma ordem
+    SPILL
+}
@@ -0,0 +1,300 @@
+package br.com.designpattern.comportamentais.observer.service.dispatch;
+
+import br.com.designpattern.comportamentais.observer.domain.events.Event;
+import br.com.designpattern.comportamentais.observer.service.BatchEventListener;
+import br.com.designpattern.comportamentais.observer.service.EventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Entrega assíncrona para um listener: cada partição tem uma fila limitada e uma thread consumidora dedicada.
+// A partição é escolhida pelo Event.data (id do pedido), então os eventos de um pedido chegam em ordem,
+// e um listener lento só atrasa as próprias filas, nunca quem publica (exceto com a política BLOCK).
+// Um BatchEventListener pode receber os eventos em lotes por tamanho ou janela de tempo e, opcionalmente,
+// apenas o último evento de cada pedido dentro do lote.
+public class PartitionedListener implements EventListener {
+
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String name;
+    private final EventListener delegate;
+    private final OverflowPolicy overflowPolicy;
+    private final BatchEventListener batchDelegate;
+    private final int batchSize;
+    private final long batchWindowNanos;
+    private final boolean coalesce;
+    private final Partition[] partitions;
+    private volatile boolean running = true;
+    private volatile DeliveryProgress progress = (partition, offset) -> { };
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public PartitionedListener(String name, EventListener delegate, DeliveryOptions options) {
+        this.name = name;
+        this.delegate = delegate;
+        this.overflowPolicy = options.getOverflowPolicy();
+        this.batchDelegate = delegate instanceof BatchEventListener batch && options.getBatchSize() > 1 ? batch : null;
+        this.batchSize = options.getBatchSize();
+        this.batchWindowNanos = options.getBatchWindow().toNanos();
+        this.coalesce = options.isCoalesce();
+        this.partitions = new Partition[options.getPartitions()];
+        for (int i = 0; i < partitions.length; i++) {
+            SpillFile spill = overflowPolicy == OverflowPolicy.SPILL
+                    ? new SpillFile(options.getSpillDirectory().resolve(name + "-" + i + ".spill"))
+                    : null;
+            partitions[i] = new Partition(i, options.getQueueCapacity(), spill);
+            Thread consumer = new Thread(partitions[i]::consume, "observer-" + name + "-" + i);
+            consumer.setDaemon(true);
+            partitions[i].consumer = consumer;
+            consumer.start();
+        }
+    }
+
+    // Chamado na thread de quem publica: apenas enfileira
+    @Override
+    public void update(Event event) {
+        Partition partition = partitions[partitionOf(event)];
+        // Registrado antes da checagem de running: a consumidora não encerra enquanto este evento pode chegar à fila
+        partition.publishers.incrementAndGet();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Listener " + name + " encerrado");
+            }
+            switch (overflowPolicy) {
+                case BLOCK -> partition.put(event);
+                case DROP_OLDEST -> partition.offerDroppingOldest(event);
+                case SPILL -> partition.offerOrSpill(event);
+            }
+        } finally {
+            partition.publishers.decrementAndGet();
+        }
+    }
+
+    public int partitionOf(Event event) {
+        Object key = event.getData();
+        return key == null ? 0 : Math.floorMod(key.hashCode(), partitions.length);
+    }
+
+    public int getPartitions() {
+        return partitions.length;
+    }
+
+    // Usado pelo NotificationManager para guardar o offset de consumo de cada partição
+    public void onDelivered(DeliveryProgress progress) {
+        this.progress = progress;
+    }
+
+    public EventListener getDelegate() {
+        return delegate;
+    }
+
+    public Map<String, Long> stats() {
+        long queued = 0;
+        for (Partition partition : partitions) {
+            queued += partition.queue.size();
+        }
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("delivered", delivered.sum());
+        stats.put("queued", queued);
+        stats.put("dropped", dropped.sum());
+        stats.put("spilled", spilled.sum());
+        stats.put("failed", failed.sum());
+        stats.put("batches", batches.sum());
+        stats.put("coalesced", coalesced.sum());
+        return stats;
+    }
+
+    // Para de aceitar eventos e espera as filas serem entregues, até o prazo informado
+    public void shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Partition partition : partitions) {
+            try {
+                partition.consumer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (partition.spill != null && !partition.consumer.isAlive()) {
+                partition.spill.close();
+            }
+        }
+    }
+
+    // Um evento com falha também avança o offset: ele já foi contado em "failed" e não é reentregue na retomada
+    private void deliver(int partition, Event event) {
+        try {
+            delegate.update(event);
+            delivered.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            System.out.println("Listener " + name + " falhou ao processar " + event.getType() + ": " + e.getMessage());
+        }
+        reportDelivered(partition, event);
+    }
+
+    private void deliverBatch(int partition, List<Event> events) {
+        List<Event> batch = coalesce ? coalesce(events) : events;
+        coalesced.add(events.size() - batch.size());
+        try {
+            batchDelegate.updateBatch(batch);
+            delivered.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            System.out.println("Listener " + name + " falhou ao processar um lote de " + batch.size() + " eventos: " + e.getMessage());
+        }
+        // Os eventos descartados pela coalescência também foram tratados
+        for (Event event : events) {
+            reportDelivered(partition, event);
+        }
+    }
+
+    private void reportDelivered(int partition, Event event) {
+        if (event.getOffset() >= 0) {
+            progress.delivered(partition, event.getOffset());
+        }
+    }
+
+    // Último evento de cada pedido, na ordem em que cada pedido apareceu pela última vez; eventos sem pedido ficam todos
+    private static List<Event> coalesce(List<Event> events) {
+        Map<Object, Event> latest = new LinkedHashMap<>();
+        List<Event> result = new ArrayList<>();
+        for (Event event : events) {
+            if (event.getData() == null) {
+                result.add(event);
+            } else {
+                latest.remove(event.getData());
+                latest.put(event.getData(), event);
+            }
+        }
+        result.addAll(latest.values());
+        return result;
+    }
+
+    private final class Partition {
+        private final int index;
+        private final BlockingQueue<Event> queue;
+        private final SpillFile spill;
+        private Thread consumer;
+        // Publicadores entre a checagem de running e o enfileiramento
+        private final AtomicInteger publishers = new AtomicInteger();
+        // Com SPILL: enquanto houver excedente em disco, os novos eventos também vão para o disco, para manter a ordem
+        private boolean spilling;
+
+        private Partition(int index, int capacity, SpillFile spill) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.spill = spill;
+        }
+
+        private void put(Event event) {
+            try {
+                queue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+                reportDelivered(index, event);
+            }
+        }
+
+        private void offerDroppingOldest(Event event) {
+            while (!queue.offer(event)) {
+                Event oldest = queue.poll();
+                if (oldest != null) {
+                    dropped.increment();
+                    reportDelivered(index, oldest);
+                }
+            }
+        }
+
+        private synchronized void offerOrSpill(Event event) {
+            if (!spilling && queue.offer(event)) {
+                return;
+            }
+            spilling = true;
+            spill.append(event);
+            spilled.increment();
+        }
+
+        private synchronized Event pollSpill() {
+            if (!spilling) {
+                return null;
+            }
+            // A fila pode ter sido preenchida depois da última leitura; o que está nela é mais antigo que o excedente
+            Event event = queue.poll();
+            if (event != null) {
+                return event;
+            }
+            event = spill.poll();
+            if (event == null) {
+                spilling = false;
+            }
+            return event;
+        }
+
+        private void consume() {
+            List<Event> batch = new ArrayList<>();
+            try {
+                while (true) {
+                    Event event = next(POLL_NANOS);
+                    if (event == null && !running && publishers.get() == 0) {
+                        // Nenhum publicador pode enfileirar mais nada; um que terminou logo antes da checagem
+                        // pode ter deixado um evento, então a fila é consultada uma última vez
+                        event = next(0);
+                        if (event == null) {
+                            return;
+                        }
+                    }
+                    if (event == null) {
+                        continue;
+                    }
+                    if (batchDelegate == null) {
+                        deliver(index, event);
+                        continue;
+                    }
+                    batch.add(event);
+                    long deadline = System.nanoTime() + batchWindowNanos;
+                    while (batch.size() < batchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        Event more = next(Math.max(0, remaining));
+                        if (more == null) {
+                            break;
+                        }
+                        batch.add(more);
+                    }
+                    deliverBatch(index, batch);
+                    batch = new ArrayList<>();
+                }
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    deliverBatch(index, batch);
+                }
+            }
+        }
+
+        // Próximo evento da fila ou do excedente, esperando até o prazo informado
+        private Event next(long timeoutNanos) throws InterruptedException {
+            Event event = queue.poll();
+            if (event == null && spill != null) {
+                event = pollSpill();
+            }
+            if (event == null && timeoutNanos > 0) {
+                event = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+            return event;
+        }
+    }
+}
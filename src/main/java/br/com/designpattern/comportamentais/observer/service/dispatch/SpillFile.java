@@ -0,0 +1,118 @@
+package br.com.designpattern.comportamentais.observer.service.dispatch;
+
+import br.com.designpattern.comportamentais.observer.domain.events.Event;
+import br.com.designpattern.comportamentais.shared.RecordCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Fila FIFO em arquivo para o excedente de uma partição, com registros no formato do RecordCodec:
+//   payload: [long offset][short+bytes tipo][short+bytes mensagem][short+bytes data]
+// Serve para aliviar a memória, não para durabilidade: não há fsync e o arquivo é recriado a cada início.
+// Event.data é gravado como texto (o id do pedido); outros tipos são convertidos com String.valueOf.
+// Não é thread-safe: a partição sincroniza o acesso.
+final class SpillFile {
+
+    private static final int MAX_FIELD_BYTES = 16 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(RecordCodec.HEADER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private long writePosition;
+    private long readPosition;
+
+    SpillFile(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o arquivo de excedente: " + path, e);
+        }
+    }
+
+    void append(Event event) {
+        byte[] type = RecordCodec.utf8(event.getType(), MAX_FIELD_BYTES);
+        byte[] message = RecordCodec.utf8(event.getMessage(), MAX_FIELD_BYTES);
+        byte[] data = RecordCodec.utf8(event.getData() == null ? null : String.valueOf(event.getData()), MAX_FIELD_BYTES);
+        ByteBuffer record = ByteBuffer.allocate(RecordCodec.HEADER_SIZE + 8
+                + RecordCodec.fieldSize(type) + RecordCodec.fieldSize(message) + RecordCodec.fieldSize(data));
+        record.position(RecordCodec.HEADER_SIZE);
+        record.putLong(event.getOffset());
+        RecordCodec.putField(record, type);
+        RecordCodec.putField(record, message);
+        RecordCodec.putField(record, data);
+        RecordCodec.seal(record, crc);
+        try {
+            while (record.hasRemaining()) {
+                writePosition += channel.write(record, writePosition);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Próximo evento ou null se o arquivo foi todo lido; nesse caso o arquivo é esvaziado
+    Event poll() {
+        if (readPosition == writePosition) {
+            reset();
+            return null;
+        }
+        try {
+            header.clear();
+            read(header, readPosition);
+            ByteBuffer record = ByteBuffer.allocate(RecordCodec.HEADER_SIZE + Math.max(0, header.getInt(0)));
+            read(record, readPosition);
+            int length = RecordCodec.validLength(record, 0, crc);
+            if (length == 0) {
+                throw new IOException("Arquivo de excedente corrompido na posição " + readPosition);
+            }
+            readPosition += record.capacity();
+            ByteBuffer payload = record.slice(RecordCodec.HEADER_SIZE, length);
+            long offset = payload.getLong();
+            Event event = new Event(RecordCodec.getField(payload), RecordCodec.getField(payload), RecordCodec.getField(payload));
+            event.setOffset(offset);
+            return event;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    boolean isEmpty() {
+        return readPosition == writePosition;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void reset() {
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        readPosition = 0;
+        writePosition = 0;
+    }
+
+    private void read(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Arquivo de excedente truncado");
+            }
+        }
+    }
+}
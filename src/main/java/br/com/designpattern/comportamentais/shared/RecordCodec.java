@@ -0,0 +1,145 @@
+package br.com.designpattern.comportamentais.shared;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// Formato comum dos registros binários gravados em arquivo: journal de transferências, snapshots de transações,
+// log de eventos e excedente das filas do observer.
+//
+// Registro: [int tamanho][int crc32][payload]. Ao gravar no lugar (ex.: região mapeada), payload e CRC vão primeiro
+// e o tamanho por último: um registro incompleto nunca parece válido na releitura.
+// Texto: [short tamanho][bytes UTF-8], com tamanho -1 para null.
+public final class RecordCodec {
+
+    public static final int HEADER_SIZE = 8;
+
+    private RecordCodec() {
+    }
+
+    // Grava o registro na posição absoluta offset de target e retorna o tamanho total (cabeçalho + payload)
+    public static int write(ByteBuffer target, int offset, ByteBuffer payload, CRC32 crc) {
+        int length = payload.remaining();
+        crc.reset();
+        crc.update(payload.duplicate());
+        target.putInt(offset + 4, (int) crc.getValue());
+        target.put(offset + HEADER_SIZE, payload, payload.position(), length);
+        target.putInt(offset, length);
+        return HEADER_SIZE + length;
+    }
+
+    // Fecha um registro montado em record: o payload começa em HEADER_SIZE e termina na posição atual.
+    // Preenche o cabeçalho e deixa o buffer pronto para ser escrito (flip).
+    public static void seal(ByteBuffer record, CRC32 crc) {
+        int end = record.position();
+        crc.reset();
+        // O CRC lê o payload pela posição do próprio buffer, sem criar uma fatia
+        record.limit(end).position(HEADER_SIZE);
+        crc.update(record);
+        record.putInt(0, end - HEADER_SIZE).putInt(4, (int) crc.getValue());
+        record.flip();
+    }
+
+    // Tamanho do payload do registro em offset, ou 0 quando ali não há registro válido
+    // (fim dos dados, preenchimento, escrita parcial ou CRC diferente)
+    public static int validLength(ByteBuffer buffer, int offset, CRC32 crc) {
+        if (offset + HEADER_SIZE > buffer.limit()) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > buffer.limit() - offset - HEADER_SIZE) {
+            return 0;
+        }
+        crc.reset();
+        crc.update(buffer.slice(offset + HEADER_SIZE, length));
+        return (int) crc.getValue() == buffer.getInt(offset + 4) ? length : 0;
+    }
+
+    // Texto em UTF-8 (null continua null); rejeita textos maiores que maxBytes
+    public static byte[] utf8(String value, int maxBytes) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException("Texto excede o tamanho máximo do registro (" + maxBytes + " bytes)");
+        }
+        return bytes;
+    }
+
+    public static int fieldSize(byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    public static void putField(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+    }
+
+    // Grava o texto direto no buffer, em UTF-8, sem criar o array intermediário de String.getBytes.
+    // Como getBytes, troca um surrogate sem par por '?'; rejeita textos maiores que maxBytes.
+    public static void putField(ByteBuffer buffer, String value, int maxBytes) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        int lengthAt = buffer.position();
+        buffer.position(lengthAt + 2);
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, value.charAt(++i));
+            } else if (Character.isSurrogate(c)) {
+                codePoint = '?';
+            }
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if ((bytes += size) > maxBytes) {
+                throw new IllegalArgumentException("Texto excede o tamanho máximo do registro (" + maxBytes + " bytes)");
+            }
+            if (size == 1) {
+                buffer.put((byte) codePoint);
+            } else if (size == 2) {
+                buffer.put((byte) (0xC0 | codePoint >> 6));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (size == 3) {
+                buffer.put((byte) (0xE0 | codePoint >> 12));
+                buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                buffer.put((byte) (0xF0 | codePoint >> 18));
+                buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            }
+        }
+        buffer.putShort(lengthAt, (short) bytes);
+    }
+
+    // Lê o texto na posição atual e avança o buffer
+    public static String getField(ByteBuffer buffer) {
+        String value = getField(buffer, buffer.position());
+        buffer.position(skipField(buffer, buffer.position()));
+        return value;
+    }
+
+    // Lê o texto na posição absoluta offset, sem mover o buffer
+    public static String getField(ByteBuffer buffer, int offset) {
+        short length = buffer.getShort(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Posição logo depois do texto em offset
+    public static int skipField(ByteBuffer buffer, int offset) {
+        return offset + 2 + Math.max(0, buffer.getShort(offset));
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.designpattern.comportamentais.chainofresponsibility.pipeline;
+
+import br.com.designpattern.comportamentais.chainofresponsibility.handler.PedidoHandler;
+import br.com.designpattern.comportamentais.chainofresponsibility.model.Pedido;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PedidoPipelineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final Queue<String> chamadas = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void reordenarMudaAOrdemDeAvaliacao() {
+        // As estimativas declaradas colocam o Permissivo primeiro, mas quem rejeita de fato é o Restritivo
+        PedidoPipeline pipeline = new PedidoPipeline(List.of(
+                new Permissivo(),
+                new Restritivo()), executor);
+        pipeline.processar(new Pedido(0L, "cliente"));
+        assertThat(chamadas).containsExactly("Permissivo", "Restritivo");
+
+        for (long id = 1; id <= 1_000; id++) {
+            pipeline.processar(new Pedido(id, "cliente"));
+        }
+        pipeline.reordenar();
+
+        assertThat(pipeline.resumo()).extracting(linha -> linha.get("handler")).containsExactly("Restritivo", "Permissivo");
+        chamadas.clear();
+        assertThat(pipeline.processar(new Pedido(0L, "cliente"))).isFalse();
+        // A rejeição do Restritivo encerra o pedido antes do Permissivo
+        assertThat(chamadas).containsExactly("Restritivo");
+    }
+
+    @Test
+    void custoObservadoDecideQuemRodaNaThreadDoPedido() {
+        // Custo declarado alto: no início os dois vão para o pool, mas a execução observada é barata
+        PedidoPipeline pipeline = new PedidoPipeline(List.of(
+                new Registrador("Estoque", 5, 0.5, true),
+                new Registrador("Pagamento", 5, 0.5, true)), executor);
+        String threadDoPedido = Thread.currentThread().getName();
+        pipeline.processar(new Pedido(0L, "cliente"));
+        assertThat(chamadas).doesNotContain(threadDoPedido);
+
+        for (long id = 1; id <= 1_000; id++) {
+            pipeline.processar(new Pedido(id, "cliente"));
+        }
+        pipeline.reordenar();
+
+        assertThat(pipeline.resumo()).extracting(linha -> linha.get("paralelo")).containsOnly(false);
+        chamadas.clear();
+        pipeline.processar(new Pedido(0L, "cliente"));
+        assertThat(chamadas).containsOnly(threadDoPedido).hasSize(2);
+    }
+
+    // Registra o nome do handler (ou da thread, quando o custo declarado é alto) a cada execução
+    private class Registrador implements PedidoHandler {
+        private final String nome;
+        private final int custo;
+        private final double probabilidadeRejeicao;
+        private final boolean aprova;
+
+        private Registrador(String nome, int custo, double probabilidadeRejeicao, boolean aprova) {
+            this.nome = nome;
+            this.custo = custo;
+            this.probabilidadeRejeicao = probabilidadeRejeicao;
+            this.aprova = aprova;
+        }
+
+        @Override
+        public boolean processar(Pedido pedido) {
+            chamadas.add(custo > 1 ? Thread.currentThread().getName() : nome);
+            return aprova;
+        }
+
+        @Override
+        public int custo() {
+            return custo;
+        }
+
+        @Override
+        public double probabilidadeRejeicao() {
+            return probabilidadeRejeicao;
+        }
+    }
+
+    private final class Permissivo extends Registrador {
+        private Permissivo() {
+            super("Permissivo", 1, 0.9, true);
+        }
+    }
+
+    private final class Restritivo extends Registrador {
+        private Restritivo() {
+            super("Restritivo", 1, 0.1, false);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.designpattern.comportamentais.command.executor;
+
+import br.com.designpattern.comportamentais.command.benchmark.SimulatedTransferCommand;
+import br.com.designpattern.comportamentais.command.journal.TransferJournal;
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransferExecutorTest {
+
+    private static final int ACCOUNTS = 8;
+    private static final long INITIAL_BALANCE = 1_000_000;
+    private static final int CLIENTS = 8;
+    private static final int TRANSFERS_PER_CLIENT = 2_000;
+
+    @TempDir
+    Path directory;
+
+    private TransferJournal journal;
+    private TransferExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        journal = new TransferJournal(directory.resolve("journal.bin"));
+        executor = new TransferExecutor(journal, 1024, 4, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        journal.close();
+    }
+
+    @Test
+    void conservaODinheiroEmTransferenciasConcorrentes() throws Exception {
+        // Saldos propositalmente sem sincronização: só os locks das contas no executor os protegem.
+        // Poucas contas e pares A→B / B→A em shards diferentes maximizam a contenção.
+        long[] balances = new long[ACCOUNTS];
+        Arrays.fill(balances, INITIAL_BALANCE);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<List<CompletableFuture<Void>>>> submitted = new ArrayList<>();
+        for (int client = 0; client < CLIENTS; client++) {
+            submitted.add(clients.submit(() -> submitRandomTransfers(balances)));
+        }
+        for (Future<List<CompletableFuture<Void>>> futures : submitted) {
+            futures.get().forEach(CompletableFuture::join);
+        }
+        clients.shutdown();
+
+        assertThat(Arrays.stream(balances).sum()).isEqualTo(ACCOUNTS * INITIAL_BALANCE);
+    }
+
+    private List<CompletableFuture<Void>> submitRandomTransfers(long[] balances) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(TRANSFERS_PER_CLIENT);
+        for (int i = 0; i < TRANSFERS_PER_CLIENT; i++) {
+            int from = random.nextInt(ACCOUNTS);
+            int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+            long amount = 1 + random.nextInt(100);
+            TransferRequest request = new TransferRequest("BALANCE", "acc-" + from, "acc-" + to, (double) amount);
+            futures.add(submit(new SimulatedTransferCommand(request, () -> {
+                long fromBalance = balances[from];
+                long toBalance = balances[to];
+                Thread.yield(); // amplia a janela de corrida caso a exclusão mútua falhe
+                balances[from] = fromBalance - amount;
+                balances[to] = toBalance + amount;
+            })));
+        }
+        return futures;
+    }
+
+    private CompletableFuture<Void> submit(SimulatedTransferCommand command) {
+        while (true) {
+            try {
+                return executor.submitCommand(command);
+            } catch (RejectedExecutionException e) {
+                Thread.yield();
+            }
+        }
+    }
+}
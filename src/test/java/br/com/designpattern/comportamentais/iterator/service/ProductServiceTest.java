@@ -0,0 +1,58 @@
+package br.com.designpattern.comportamentais.iterator.service;
+
+import br.com.designpattern.comportamentais.iterator.model.Product;
+import br.com.designpattern.comportamentais.iterator.model.ProductPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductServiceTest {
+
+    // 5 produtos em duas fontes: com páginas de 2, a fonte do banco preenche sozinha a primeira página
+    private final ProductService service = new ProductService(new ObjectMapper(),
+            List.of(product("1"), product("2")),
+            List.of(product("3"), product("4"), product("5")));
+
+    @AfterEach
+    void encerrar() {
+        service.shutdown();
+    }
+
+    @Test
+    void paginasPercorremOCatalogoInteiroEntreAsFontes() {
+        for (int limit = 1; limit <= 6; limit++) {
+            assertThat(readAll(limit)).as("limit=%d", limit).containsExactly("1", "2", "3", "4", "5");
+        }
+    }
+
+    @Test
+    void ultimaPaginaNaoTemCursor() {
+        ProductPage first = service.getProductsPage(null, 2);
+        ProductPage second = service.getProductsPage(first.getNextCursor(), 2);
+        ProductPage third = service.getProductsPage(second.getNextCursor(), 2);
+
+        assertThat(second.getNextCursor()).isNotNull();
+        assertThat(third.getProducts()).extracting(Product::getId).containsExactly("5");
+        assertThat(third.getNextCursor()).isNull();
+    }
+
+    private List<String> readAll(int limit) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPage page = service.getProductsPage(cursor, limit);
+            page.getProducts().forEach(product -> ids.add(product.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && ids.size() <= 10);
+        return ids;
+    }
+
+    private static Product product(String id) {
+        return new Product(id, "Produto " + id, 10.0);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.designpattern.comportamentais.command.benchmark;
+
+import br.com.designpattern.comportamentais.command.command.TransferCommand;
+import br.com.designpattern.comportamentais.command.model.TransferRequest;
+
+// Comando usado nos benchmarks: executa uma ação arbitrária no lugar do TransferService
+public class SimulatedTransferCommand implements TransferCommand {
+    private final TransferRequest request;
+    private final Runnable action;
+
+    public SimulatedTransferCommand(TransferRequest request, Runnable action) {
+        this.request = request;
+        this.action = action;
+    }
+
+    @Override
+    public void execute() {
+        action.run();
+    }
+
+    @Override
+    public TransferRequest getRequest() {
+        return request;
+    }
+}